@@ -0,0 +1,143 @@
+package org.example.licenseplatform.benchmark;
+
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.MachineInfo;
+import org.example.licenseplatform.util.KeyStoreUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 基准测试公共数据：一次性密钥库与不同规模的 License 内容
+ */
+final class BenchmarkFixtures {
+
+    static final String ALIAS = "benchmark";
+    static final String STORE_PASS = "benchmark";
+    static final String TIME_SECRET = "benchmarkSecret";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 用 keytool 在临时目录生成一次性 JKS 密钥库，不依赖任何外部文件或网络
+     *
+     * @param keyAlg 密钥算法：RSA / EC / Ed25519（Ed25519 需要 JDK 15 及以上的 keytool）
+     * @return 临时密钥库路径（JVM 退出时删除）
+     */
+    static Path generateKeyStore(String keyAlg) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("license-bench-");
+        Path keystore = dir.resolve("bench.keystore");
+
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool");
+        command.add("-genkeypair");
+        command.add("-keyalg");
+        command.add(keyAlg);
+        if ("RSA".equalsIgnoreCase(keyAlg)) {
+            command.add("-keysize");
+            command.add("2048");
+        } else if ("EC".equalsIgnoreCase(keyAlg)) {
+            command.add("-groupname");
+            command.add("secp256r1");
+        }
+        command.add("-alias");
+        command.add(ALIAS);
+        command.add("-dname");
+        command.add("CN=license-benchmark");
+        command.add("-validity");
+        command.add("1");
+        command.add("-storetype");
+        command.add("JKS");
+        command.add("-keystore");
+        command.add(keystore.toString());
+        command.add("-storepass");
+        command.add(STORE_PASS);
+        command.add("-keypass");
+        command.add(STORE_PASS);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(readAll(process), StandardCharsets.UTF_8);
+        if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            throw new IllegalStateException("keytool 生成密钥库失败：" + output);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteQuietly(dir)));
+        return keystore;
+    }
+
+    static PrivateKey privateKey(Path keystore) throws Exception {
+        return KeyStoreUtils.loadPrivateKeyFromJKS(keystore.toString(), ALIAS, STORE_PASS, STORE_PASS);
+    }
+
+    static PublicKey publicKey(Path keystore) throws Exception {
+        return KeyStoreUtils.loadPublicKeyFromJKS(keystore.toString(), ALIAS, STORE_PASS);
+    }
+
+    /**
+     * 构造包含指定数量绑定机器的 License（cluster 模式），第一台机器可指定为当前机器
+     *
+     * @param machines 绑定机器数量
+     * @param first    第一台机器（为 null 时全部随机生成）
+     */
+    static LicenseContent license(int machines, MachineInfo first) {
+        LicenseContent content = new LicenseContent();
+        content.setLicenseId("BENC-TST-202501-000001");
+        content.setProjectId("benchmark");
+        content.setCustomer("Benchmark Customer Co., Ltd.");
+        content.setIssueDate(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+        content.setExpireDate(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365));
+        content.setMode("cluster");
+        content.setFirstUsedAt(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+
+        Map<String, Boolean> features = new LinkedHashMap<>();
+        features.put("exportExcel", true);
+        features.put("advancedReport", true);
+        features.put("apiAccess", false);
+        features.put("multiTenant", true);
+        content.setFeatures(features);
+
+        List<MachineInfo> bound = new ArrayList<>(machines);
+        if (first != null) {
+            bound.add(first);
+        }
+        for (int i = bound.size(); i < machines; i++) {
+            MachineInfo machine = new MachineInfo();
+            machine.setMacAddress(String.format("02:00:%02X:%02X:%02X:%02X", i >>> 24 & 0xFF, i >>> 16 & 0xFF, i >>> 8 & 0xFF, i & 0xFF));
+            machine.setCpuSerial(String.format("Serial: %016X", 0x5EED000000000000L + i));
+            machine.setMainBoardSerial(String.format("Serial Number: BOARD%010d", i));
+            bound.add(machine);
+        }
+        content.setBoundMachines(bound);
+        return content;
+    }
+
+    private static byte[] readAll(Process process) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = process.getInputStream().read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+        }
+    }
+}
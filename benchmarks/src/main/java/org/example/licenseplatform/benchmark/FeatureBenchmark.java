@@ -0,0 +1,48 @@
+package org.example.licenseplatform.benchmark;
+
+import org.example.licenseplatform.context.FeatureHandle;
+import org.example.licenseplatform.context.LicenseContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 功能开关判断：LicenseContext.isFeatureEnabled（按名称）与 FeatureHandle.isEnabled（预解析句柄）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeatureBenchmark {
+
+    private final String featureKey = "exportExcel";
+
+    private FeatureHandle handle;
+
+    @Setup
+    public void setup() {
+        LicenseContext.setVerified(BenchmarkFixtures.license(1, null));
+        handle = FeatureHandle.of(featureKey);
+    }
+
+    @Benchmark
+    public boolean isFeatureEnabled() {
+        return LicenseContext.isFeatureEnabled(featureKey);
+    }
+
+    @Benchmark
+    public boolean handleIsEnabled() {
+        return handle.isEnabled();
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.licenseplatform.benchmark;
+
+import org.example.licenseplatform.client.BoundMachineIndex;
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.MachineInfo;
+import org.example.licenseplatform.model.StreamedLicense;
+import org.example.licenseplatform.util.LicenseFileCodec;
+import org.example.licenseplatform.util.LicenseStreamReader;
+import org.example.licenseplatform.util.MachineInfoUtils;
+import org.example.licenseplatform.util.SignatureScheme;
+import org.example.licenseplatform.util.SignatureUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 硬件绑定校验：LicenseStreamReader.read + BoundMachineIndex.matcherFor，与客户端加载 License 的路径一致
+ * 当前机器位于 1 / 100 / 10000 台绑定机器中的最后一台，每次校验都流式验签并逐台比对整个机器列表
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HardwareBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int machines;
+
+    private PublicKey publicKey;
+    private MachineInfo current;
+    private byte[] file;
+
+    @Setup
+    public void setup() throws Exception {
+        Path keystore = BenchmarkFixtures.generateKeyStore("RSA");
+        PrivateKey privateKey = BenchmarkFixtures.privateKey(keystore);
+        publicKey = BenchmarkFixtures.publicKey(keystore);
+        String alg = SignatureScheme.forKey(privateKey).getAlgorithm();
+
+        current = MachineInfoUtils.getMachineInfo();
+        MachineInfo copy = new MachineInfo();
+        copy.setMacAddress(current.getMacAddress());
+        copy.setCpuSerial(current.getCpuSerial());
+        copy.setMainBoardSerial(current.getMainBoardSerial());
+
+        // 当前机器放在列表末尾，比对需要扫描全部机器
+        LicenseContent content = BenchmarkFixtures.license(machines, null);
+        content.getBoundMachines().set(machines - 1, copy);
+        content.setAlg(alg);
+        byte[] payload = LicenseFileCodec.toPayload(content);
+        String signature = SignatureUtils.sign(new String(payload, StandardCharsets.UTF_8), privateKey);
+        file = LicenseFileCodec.encode(payload, signature, alg, null);
+    }
+
+    @Benchmark
+    public boolean validateHardware() throws Exception {
+        try (LicenseStreamReader reader = LicenseStreamReader.open(new ByteArrayInputStream(file))) {
+            StreamedLicense license = reader.read(publicKey,
+                    BoundMachineIndex.matcherFor(current, BoundMachineIndex.ALL_COMPONENTS));
+            if (!license.isSignatureValid() || !license.isMachineAuthorized()) {
+                throw new IllegalStateException("硬件绑定校验未通过");
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.licenseplatform.benchmark;
+
+import org.example.licenseplatform.util.HmacUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 时间记录 HMAC：HmacUtils.sign / HmacUtils.verify
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HmacBenchmark {
+
+    private String timestamp;
+    private String hmac;
+
+    @Setup
+    public void setup() {
+        timestamp = String.valueOf(System.currentTimeMillis());
+        hmac = HmacUtils.sign(timestamp, BenchmarkFixtures.TIME_SECRET);
+    }
+
+    @Benchmark
+    public String sign() {
+        return HmacUtils.sign(timestamp, BenchmarkFixtures.TIME_SECRET);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return HmacUtils.verify(timestamp, hmac, BenchmarkFixtures.TIME_SECRET);
+    }
+}
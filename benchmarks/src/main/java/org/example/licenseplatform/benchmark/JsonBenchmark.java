@@ -0,0 +1,54 @@
+package org.example.licenseplatform.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.util.JsonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonUtils mapper 对 LicenseContent 的序列化与解析（1 / 100 / 10000 台绑定机器）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int machines;
+
+    private final ObjectMapper mapper = JsonUtils.getMapper();
+
+    private LicenseContent content;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        content = BenchmarkFixtures.license(machines, null);
+        json = mapper.writeValueAsBytes(content);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(content);
+    }
+
+    @Benchmark
+    public LicenseContent parse() throws Exception {
+        return mapper.readValue(json, LicenseContent.class);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.licenseplatform.benchmark;
+
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.SignedLicense;
+import org.example.licenseplatform.util.LicenseFileCodec;
+import org.example.licenseplatform.util.PayloadFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * .lic 文件 payload 编码对比：JSON 与 Smile 的编码、解码耗时（1 / 100 / 10000 台绑定机器）
+ * 文件大小在 Setup 阶段输出到控制台
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadFormatBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int machines;
+
+    @Param({"JSON", "SMILE"})
+    public PayloadFormat format;
+
+    private LicenseContent content;
+    private byte[] file;
+
+    @Setup
+    public void setup() throws Exception {
+        content = BenchmarkFixtures.license(machines, null);
+        byte[] payload = LicenseFileCodec.toPayload(content, format);
+        file = LicenseFileCodec.encode(payload, "c2lnbmF0dXJl", "SHA256withRSA", "kid");
+        System.out.println("# " + format + "，" + machines + " 台机器，文件大小 " + file.length + " 字节");
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return LicenseFileCodec.toPayload(content, format);
+    }
+
+    @Benchmark
+    public SignedLicense decode() throws Exception {
+        return LicenseFileCodec.decode(file);
+    }
+}
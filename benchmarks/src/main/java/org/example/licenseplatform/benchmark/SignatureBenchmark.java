@@ -0,0 +1,69 @@
+package org.example.licenseplatform.benchmark;
+
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.util.LicenseFileCodec;
+import org.example.licenseplatform.util.SignatureScheme;
+import org.example.licenseplatform.util.SignatureUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 签名与验签：SignatureUtils.sign / SignatureUtils.verify（License payload 为 1 台绑定机器的典型大小）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignatureBenchmark {
+
+    @Param({"RSA", "EC", "Ed25519"})
+    public String keyAlg;
+
+    private PrivateKey privateKey;
+    private PublicKey publicKey;
+    private String alg;
+    private String payloadText;
+    private byte[] payload;
+    private String signature;
+
+    @Setup
+    public void setup() throws Exception {
+        Path keystore = BenchmarkFixtures.generateKeyStore(keyAlg);
+        privateKey = BenchmarkFixtures.privateKey(keystore);
+        publicKey = BenchmarkFixtures.publicKey(keystore);
+        alg = SignatureScheme.forKey(privateKey).getAlgorithm();
+
+        LicenseContent content = BenchmarkFixtures.license(1, null);
+        content.setAlg(alg);
+        payload = LicenseFileCodec.toPayload(content);
+        payloadText = new String(payload, StandardCharsets.UTF_8);
+        signature = SignatureUtils.sign(payloadText, privateKey);
+    }
+
+    @Benchmark
+    public String sign() throws Exception {
+        return SignatureUtils.sign(payloadText, privateKey);
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        return SignatureUtils.verify(payload, 0, payload.length, signature, publicKey, alg);
+    }
+}
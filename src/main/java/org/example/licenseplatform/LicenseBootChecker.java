@@ -1,16 +1,30 @@
 package org.example.licenseplatform;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.client.BootstrapConfigLoader;
 import org.example.licenseplatform.client.ClientLicenseConfig;
 import org.example.licenseplatform.client.LicenseLoadException;
+import org.example.licenseplatform.client.LicenseReloader;
 import org.example.licenseplatform.client.LicenseVerifier;
 import org.example.licenseplatform.context.LicenseContext;
 import org.example.licenseplatform.model.LicenseContent;
 import org.springframework.boot.SpringApplication;
-import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * License 启动校验器：封装 License 校验逻辑，优雅控制程序启动流程
+ *
+ * 校验所需的 license.client 配置在 Spring 容器启动前直接从配置文件读取，按 license.client.boot-mode 选择：
+ * <ul>
+ *     <li>pre-spring（默认）：先校验再启动容器，无效 License 在毫秒级内退出，不会启动 Tomcat、Redis 等组件</li>
+ *     <li>concurrent：校验与容器刷新并行，容器刷新完成（ApplicationStartedEvent）时等待校验结果，
+ *     失败则启动失败；校验通过前拦截器拒绝所有业务请求</li>
+ * </ul>
  */
 @Slf4j
 public class LicenseBootChecker {
@@ -19,23 +33,31 @@ public class LicenseBootChecker {
      * 启动 SpringBoot 应用，并执行 License 校验
      *
      * @param applicationClass 启动类
+     * @param args             命令行参数
      */
-    public static void run(Class<?> applicationClass) {
+    public static void run(Class<?> applicationClass, String... args) {
         try {
-            // 1. 启动 Spring 容器
-            ConfigurableApplicationContext context = SpringApplication.run(applicationClass);
-
-            // 2. 获取客户端 License 配置与验证器
-            ClientLicenseConfig config = context.getBean(ClientLicenseConfig.class);
+            // 1. 启动前读取客户端 License 配置，创建验证器
+            long start = System.nanoTime();
+            ClientLicenseConfig config = BootstrapConfigLoader.load(args);
             LicenseVerifier verifier = new LicenseVerifier(config);
 
-            // 3. 执行 License 校验，返回授权内容
-            //LicenseContent license = verifier.verify();
+            // 2~3. 按启动模式校验 License 并启动 Spring 容器
+            if (config.getBootMode() == ClientLicenseConfig.BootMode.CONCURRENT) {
+                runConcurrently(applicationClass, args, verifier, start);
+            } else {
+                // 校验通过后将授权状态注入 LicenseContext，全局可用
+                LicenseContext.setVerified(verifier.verify());
+                log.info("License 校验通过（启动前校验），耗时 {} ms", elapsedMillis(start));
+                SpringApplication.run(applicationClass, args);
+            }
 
-            // 4. 将授权状态注入 LicenseContext，全局可用
-            //LicenseContext.setVerified(license);
+            log.info("License 校验通过，程序启动成功，总耗时 {} ms", elapsedMillis(start));
 
-            log.info("License 校验通过，程序启动成功");
+            // 4. 启动 License 热加载：替换 License 文件无需重启
+            if (config.isHotReload()) {
+                new LicenseReloader(verifier, config).start();
+            }
 
         } catch (LicenseLoadException e) {
             log.error("License 校验失败：" + e.getMessage());
@@ -49,4 +71,43 @@ public class LicenseBootChecker {
             System.exit(2);
         }
     }
+
+    /**
+     * 校验与容器刷新并行：容器刷新完成后等待校验结果，校验失败时抛出异常使启动失败
+     */
+    private static void runConcurrently(Class<?> applicationClass, String[] args, LicenseVerifier verifier, long start) {
+        CompletableFuture<LicenseContent> verification = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                LicenseContent license = verifier.verify();
+                log.info("License 校验完成（与容器启动并行），耗时 {} ms", elapsedMillis(start));
+                verification.complete(license);
+            } catch (Throwable e) {
+                verification.completeExceptionally(e);
+            }
+        }, "license-boot-verify");
+        thread.setDaemon(true);
+        thread.start();
+
+        SpringApplication application = new SpringApplication(applicationClass);
+        application.addListeners((ApplicationListener<ApplicationStartedEvent>) event -> {
+            long waitStart = System.nanoTime();
+            LicenseContent license;
+            try {
+                license = verification.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof LicenseLoadException
+                        ? (LicenseLoadException) cause
+                        : new LicenseLoadException("License 校验失败：" + cause.getMessage(), cause);
+            }
+            LicenseContext.setVerified(license);
+            log.info("容器刷新完成，等待 License 校验 {} ms", elapsedMillis(waitStart));
+        });
+        application.run(args);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
 }
@@ -1,10 +1,12 @@
 package org.example.licenseplatform;
 
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LicensePlatformApplication {
     public static void main(String[] args) {
-        LicenseBootChecker.run(LicensePlatformApplication.class);
+        LicenseBootChecker.run(LicensePlatformApplication.class, args);
     }
 }
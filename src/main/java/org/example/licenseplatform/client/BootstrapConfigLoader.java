@@ -0,0 +1,57 @@
+package org.example.licenseplatform.client;
+
+import org.springframework.boot.context.config.ConfigDataEnvironmentPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.CommandLinePropertySource;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * 在 Spring 容器启动之前读取 license.client 配置，供启动前校验使用
+ *
+ * 配置文件由 Spring Boot 自身的 ConfigDataEnvironmentPostProcessor 加载，不创建任何 Bean，
+ * 支持的配置来源与容器启动时完全一致：命令行参数、系统属性、环境变量，
+ * classpath 与当前目录（含 config/ 子目录）下的 application.properties / application.yml，
+ * spring.config.location / spring.config.additional-location / spring.config.import 指定的位置，
+ * spring.profiles.active 对应的 profile 文件以及 spring.config.activate.on-profile 文档。
+ * 不支持通过 SpringApplication.setDefaultProperties 等代码方式设置的属性。
+ */
+public final class BootstrapConfigLoader {
+
+    private BootstrapConfigLoader() {
+    }
+
+    /**
+     * 读取并绑定客户端 License 配置
+     *
+     * @param args 命令行参数
+     * @throws LicenseLoadException 配置文件无法加载，或未配置 license.client.license-path
+     */
+    public static ClientLicenseConfig load(String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        if (args != null && args.length > 0) {
+            // 与 SpringApplication 使用相同的名称，spring.config.* 等参数同样生效
+            environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(
+                    CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME, args));
+        }
+
+        try {
+            ConfigDataEnvironmentPostProcessor.applyTo(environment);
+        } catch (RuntimeException e) {
+            throw new LicenseLoadException("读取配置文件失败：" + e.getMessage(), e);
+        }
+
+        Binder binder = Binder.get(environment);
+        ClientLicenseConfig config = binder.bind("license.client", Bindable.of(ClientLicenseConfig.class))
+                .orElseGet(ClientLicenseConfig::new);
+        // timeSecret 在 Spring 中通过 @Value 注入，这里单独绑定
+        config.setTimeSecret(binder.bind("license.time-secret", String.class).orElse(null));
+
+        // 找不到 License 路径时直接失败，不能用与容器不同的配置校验
+        if (config.getLicensePath() == null || config.getLicensePath().trim().isEmpty()) {
+            throw new LicenseLoadException("未配置 license.client.license-path，无法在启动前校验 License");
+        }
+        return config;
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.licenseplatform.client;
+
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.MachineInfo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 授权机器哈希索引：License 加载时把绑定机器的指纹归一化为字符串键放入 HashSet，
+ * 之后判断当前机器是否被授权只需一次 O(1) 查找
+ *
+ * 归一化规则：去除首尾空白、转大写，null 视为空字符串。
+ * 除完整匹配（MAC + CPU + 主板）外，还维护三种两两组合的键，支持“任意两项一致即可”的部分匹配。
+ * 索引不做全局缓存，由持有 License 的对象（如校验结果缓存条目）保存并复用。
+ */
+public final class BoundMachineIndex {
+
+    /** 完整匹配至少需要的组件数 */
+    public static final int ALL_COMPONENTS = 3;
+
+    private static final char SEPARATOR = '\u0001';
+
+    private static final BoundMachineIndex EMPTY =
+            new BoundMachineIndex(Collections.<String>emptySet(), Collections.<String>emptySet(), 0);
+
+    private final Set<String> fullKeys;
+    private final Set<String> pairKeys;
+    private final int size;
+
+    private BoundMachineIndex(Set<String> fullKeys, Set<String> pairKeys, int size) {
+        this.fullKeys = fullKeys;
+        this.pairKeys = pairKeys;
+        this.size = size;
+    }
+
+    /**
+     * 构建 License 的授权机器索引
+     * standalone 模式只索引第一台机器，cluster 模式索引全部机器
+     */
+    public static BoundMachineIndex build(LicenseContent license) {
+        List<MachineInfo> machines = license.getBoundMachines();
+        if (machines == null || machines.isEmpty()) {
+            return EMPTY;
+        }
+        if ("standalone".equalsIgnoreCase(license.getMode())) {
+            machines = machines.subList(0, 1);
+        }
+        return build(machines);
+    }
+
+    /**
+     * 根据机器列表构建索引
+     */
+    public static BoundMachineIndex build(List<MachineInfo> machines) {
+        Builder builder = new Builder();
+        for (MachineInfo machine : machines) {
+            builder.add(machine);
+        }
+        return builder.build(false);
+    }
+
+    /**
+     * 创建索引构建器，可直接作为 {@link org.example.licenseplatform.util.LicenseStreamReader#read} 的比对函数，
+     * 在流式加载时收集绑定机器
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 构建“绑定机器是否就是当前机器”的比对函数，供流式加载时逐台比对，无需为整个机器列表建索引
+     *
+     * @param current       当前机器指纹
+     * @param minComponents 至少一致的组件数：3 为完整匹配，2 为任意两项一致
+     */
+    public static Predicate<MachineInfo> matcherFor(MachineInfo current, int minComponents) {
+        BoundMachineIndex index = build(Collections.singletonList(current));
+        return machine -> index.matches(MachineKey.of(machine), minComponents);
+    }
+
+    /**
+     * 机器是否被授权（三项指纹全部一致）
+     */
+    public boolean matches(MachineInfo machine) {
+        return matches(MachineKey.of(machine), ALL_COMPONENTS);
+    }
+
+    /**
+     * 机器是否被授权
+     *
+     * @param key           机器键（见 {@link MachineKey#of(MachineInfo)}）
+     * @param minComponents 至少一致的组件数：3 为完整匹配，2 为任意两项一致
+     */
+    public boolean matches(MachineKey key, int minComponents) {
+        if (fullKeys.contains(key.full)) {
+            return true;
+        }
+        if (minComponents >= ALL_COMPONENTS) {
+            return false;
+        }
+        return pairKeys.contains(key.macCpu) || pairKeys.contains(key.macBoard) || pairKeys.contains(key.cpuBoard);
+    }
+
+    /**
+     * 索引中的机器数量
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 索引构建器：逐台加入绑定机器（传入的 MachineInfo 可被调用方复用，只保存归一化后的键）
+     */
+    public static final class Builder implements Predicate<MachineInfo> {
+
+        private final Set<String> full = new HashSet<>();
+        private final Set<String> pairs = new HashSet<>();
+        private MachineKey first;
+        private int size;
+
+        private Builder() {
+        }
+
+        public void add(MachineInfo machine) {
+            MachineKey key = MachineKey.of(machine);
+            if (first == null) {
+                first = key;
+            }
+            full.add(key.full);
+            pairs.add(key.macCpu);
+            pairs.add(key.macBoard);
+            pairs.add(key.cpuBoard);
+            size++;
+        }
+
+        /**
+         * 收集一台绑定机器；始终返回 false，流式扫描会把后续机器继续交给构建器
+         */
+        @Override
+        public boolean test(MachineInfo machine) {
+            add(machine);
+            return false;
+        }
+
+        /**
+         * @param firstOnly 是否只索引第一台机器（standalone 模式）
+         */
+        public BoundMachineIndex build(boolean firstOnly) {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (firstOnly && size > 1) {
+                return new BoundMachineIndex(Collections.singleton(first.full),
+                        new HashSet<>(Arrays.asList(first.macCpu, first.macBoard, first.cpuBoard)), 1);
+            }
+            return new BoundMachineIndex(full, pairs, size);
+        }
+    }
+
+    /**
+     * 归一化后的机器指纹键（完整键 + 三个两两组合键）
+     */
+    public static final class MachineKey {
+
+        private final String full;
+        private final String macCpu;
+        private final String macBoard;
+        private final String cpuBoard;
+
+        private MachineKey(String mac, String cpu, String board) {
+            this.full = mac + SEPARATOR + cpu + SEPARATOR + board;
+            // 组合键带位置前缀，避免不同组件的值相同时互相冲突
+            this.macCpu = "MC" + SEPARATOR + mac + SEPARATOR + cpu;
+            this.macBoard = "MB" + SEPARATOR + mac + SEPARATOR + board;
+            this.cpuBoard = "CB" + SEPARATOR + cpu + SEPARATOR + board;
+        }
+
+        public static MachineKey of(MachineInfo machine) {
+            return new MachineKey(
+                    normalize(machine.getMacAddress()),
+                    normalize(machine.getCpuSerial()),
+                    normalize(machine.getMainBoardSerial()));
+        }
+
+        private static String normalize(String value) {
+            return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+        }
+    }
+}
@@ -21,6 +21,21 @@ public class ClientLicenseConfig {
     /** 公钥证书路径（用于验签） */
     private String publicKeyPath;
 
+    /** 公钥证书目录（可选），目录下的 .cer 均加入公钥环并持续监听，用于密钥轮换 */
+    private String publicKeyDir;
+
+    /** 硬件指纹至少一致的组件数：3 为 MAC、CPU、主板全部一致，2 为任意两项一致 */
+    private int minMatchedComponents = 3;
+
+    /** 是否监听 License 文件变化并自动热加载 */
+    private boolean hotReload = true;
+
+    /** 热加载防抖间隔（毫秒），文件连续变化时只在最后一次变化后加载一次 */
+    private long reloadDebounceMillis = 500;
+
+    /** 启动校验模式：pre-spring（启动 Spring 前校验，失败立即退出）/ concurrent（与容器启动并行校验） */
+    private BootMode bootMode = BootMode.PRE_SPRING;
+
     /** 记录最后启动时间的文件路径（防时间回拨） */
     private String timeRecordPath;
 
@@ -28,6 +43,16 @@ public class ClientLicenseConfig {
     @Value("${license.time-secret}")
     private String timeSecret;
 
+    /**
+     * 启动校验模式
+     */
+    public enum BootMode {
+        /** 在 SpringApplication.run 之前校验：无效 License 不会启动 Tomcat、Redis 等任何组件 */
+        PRE_SPRING,
+        /** 与 Spring 容器刷新并行校验：容器就绪（ApplicationStartedEvent）前等待校验结果，失败则启动失败 */
+        CONCURRENT
+    }
+
     /**
      * 加载公钥（从 X.509 证书文件中）
      */
@@ -40,4 +65,11 @@ public class ClientLicenseConfig {
             throw new RuntimeException("加载公钥失败：" + e.getMessage(), e);
         }
     }
+
+    /**
+     * 加载公钥环（默认公钥 + 公钥证书目录）
+     */
+    public PublicKeyRing loadKeyRing() {
+        return PublicKeyRing.load(publicKeyPath, publicKeyDir);
+    }
 }
@@ -0,0 +1,125 @@
+package org.example.licenseplatform.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.context.LicenseContext;
+import org.example.licenseplatform.model.LicenseContent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * License 热加载器：监听 License 文件变化，在后台线程重新校验并原子替换 LicenseContext 快照
+ *
+ * 新文件校验通过才会替换；校验失败时保留当前生效的 License，不影响正在处理的请求。
+ * 文件通常会连续触发多次修改事件，加载前会等待一个防抖间隔。
+ */
+@Slf4j
+public class LicenseReloader implements Closeable {
+
+    private final LicenseVerifier verifier;
+    private final Path licenseFile;
+    private final long debounceMillis;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "license-reloader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private WatchService watchService;
+    private ScheduledFuture<?> pending;
+
+    public LicenseReloader(LicenseVerifier verifier, ClientLicenseConfig config) {
+        this.verifier = verifier;
+        this.licenseFile = Paths.get(config.getLicensePath()).toAbsolutePath().normalize();
+        this.debounceMillis = config.getReloadDebounceMillis();
+    }
+
+    /**
+     * 开始监听 License 文件所在目录
+     */
+    public void start() throws IOException {
+        Path dir = licenseFile.getParent();
+        watchService = dir.getFileSystem().newWatchService();
+        // 覆盖写入触发 MODIFY，先写临时文件再 rename 的方式触发 CREATE
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread watcher = new Thread(this::pollEvents, "license-file-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("License 热加载已启用，监听文件：{}", licenseFile);
+    }
+
+    private void pollEvents() {
+        Path fileName = licenseFile.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() != StandardWatchEventKinds.OVERFLOW && fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    scheduleReload();
+                }
+                if (!key.reset()) {
+                    log.warn("License 所在目录已失效，停止热加载监听：{}", licenseFile.getParent());
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 关闭热加载器时退出
+        }
+    }
+
+    private synchronized void scheduleReload() {
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = executor.schedule(this::reload, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 重新校验 License 文件，通过后替换 LicenseContext 快照
+     *
+     * @return 是否加载成功
+     */
+    public boolean reload() {
+        long start = System.nanoTime();
+        try {
+            LicenseContent license = verifier.verify();
+            LicenseContext.setVerified(license);
+            log.info("License 热加载成功：{}，耗时 {} ms", license.getLicenseId(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
+        } catch (Exception e) {
+            log.error("License 热加载失败，继续使用当前 License，耗时 {} ms：{}",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
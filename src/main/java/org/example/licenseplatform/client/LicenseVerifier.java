@@ -1,13 +1,11 @@
 package org.example.licenseplatform.client;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.licenseplatform.model.LicenseContent;
-import org.example.licenseplatform.util.JsonUtils;
+import org.example.licenseplatform.model.StreamedLicense;
+import org.example.licenseplatform.util.LicenseStreamReader;
+import org.example.licenseplatform.util.MachineInfoUtils;
 
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
 
 /**
@@ -15,11 +13,14 @@ import java.security.PublicKey;
  */
 public class LicenseVerifier {
 
-    private final ObjectMapper objectMapper = JsonUtils.getMapper();
     private final ClientLicenseConfig config;
 
+    /** 公钥环：证书只在构造时解析一次 */
+    private final PublicKeyRing keyRing;
+
     public LicenseVerifier(ClientLicenseConfig config) {
         this.config = config;
+        this.keyRing = config.loadKeyRing();
     }
 
     /**
@@ -35,21 +36,20 @@ public class LicenseVerifier {
                 throw new LicenseLoadException("未找到 License 文件：" + config.getLicensePath());
             }
 
-            String json = new String(
-                    Files.readAllBytes(Paths.get(config.getLicensePath())),
-                    StandardCharsets.UTF_8
-            );
-
-            // 2. 反序列化为 LicenseContent 对象
-            LicenseContent license = objectMapper.readValue(json, LicenseContent.class);
-
-            // 3. 加载公钥
-            PublicKey publicKey = config.loadPublicKey();
+            // 2. 流式加载：边读边验签，绑定机器逐台与当前机器比对，不在内存中保留完整文件与机器列表
+            StreamedLicense loaded;
+            try (LicenseStreamReader reader = LicenseStreamReader.open(licenseFile.toPath())) {
+                // 3. 按 kid 从公钥环中取出验签公钥（旧版 License 无 kid 时使用默认公钥）
+                PublicKey publicKey = keyRing.get(reader.getKid());
+                loaded = reader.read(publicKey, BoundMachineIndex.matcherFor(
+                        MachineInfoUtils.getMachineInfo(), config.getMinMatchedComponents()));
+            }
+            LicenseContent license = loaded.getContent();
 
             // 4. 执行完整校验流程（签名、时间、硬件、时间回拨）
-            LicenseValidator.validateSignature(license, publicKey);
+            LicenseValidator.validateSignature(loaded);
             LicenseValidator.validateDate(license);
-            LicenseValidator.validateHardware(license);
+            LicenseValidator.validateHardware(loaded);
             LicenseValidator.validateFirstUsedAt(license);
             LicenseValidator.validateTimeRollback(config.getTimeRecordPath(), config.getTimeSecret());
 
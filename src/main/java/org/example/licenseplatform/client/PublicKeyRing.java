@@ -0,0 +1,210 @@
+package org.example.licenseplatform.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.util.KeyStoreUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 公钥环：启动时一次性解析所有配置的 X.509 证书，按 kid 缓存公钥
+ *
+ * 验签时根据 License 中的 kid 以 O(1) 取出公钥，不再重复解析证书文件；
+ * 配置了证书目录时后台监听该目录，新增 / 替换 / 删除 .cer 文件即可完成密钥轮换。
+ */
+@Slf4j
+public class PublicKeyRing implements Closeable {
+
+    /** kid -> 公钥 */
+    private final Map<String, PublicKey> keys = new ConcurrentHashMap<>();
+
+    /** 证书文件路径 -> kid，避免重复解析同一文件 */
+    private final Map<Path, String> pathIndex = new ConcurrentHashMap<>();
+
+    /** 默认公钥的 kid（旧版 License 未携带 kid 时使用） */
+    private volatile String defaultKid;
+
+    private volatile WatchService watchService;
+
+    /**
+     * 构建公钥环
+     *
+     * @param defaultCerPath 默认公钥证书路径（可为空）
+     * @param certDir        证书目录（可为空），目录下所有 .cer / .crt 文件都会被加载并持续监听
+     * @return 公钥环
+     */
+    public static PublicKeyRing load(String defaultCerPath, String certDir) {
+        PublicKeyRing ring = new PublicKeyRing();
+        if (defaultCerPath != null && !defaultCerPath.isEmpty()) {
+            ring.defaultKid = ring.register(Paths.get(defaultCerPath));
+        }
+        if (certDir != null && !certDir.isEmpty()) {
+            ring.watch(Paths.get(certDir));
+        }
+        return ring;
+    }
+
+    /**
+     * 注册证书文件（同一路径只解析一次）
+     *
+     * @param cerPath 证书路径
+     * @return 证书公钥的 kid
+     */
+    public String register(Path cerPath) {
+        Path normalized = cerPath.toAbsolutePath().normalize();
+        String kid = pathIndex.get(normalized);
+        if (kid != null) {
+            return kid;
+        }
+        return load(normalized);
+    }
+
+    /**
+     * 按 kid 获取公钥；kid 为空时返回默认公钥
+     *
+     * @param kid 密钥 ID
+     * @return 公钥
+     * @throws LicenseLoadException 公钥环中不存在该 kid
+     */
+    public PublicKey get(String kid) {
+        String effectiveKid = kid != null ? kid : defaultKid;
+        PublicKey key = effectiveKid != null ? keys.get(effectiveKid) : null;
+        if (key == null) {
+            throw new LicenseLoadException("未找到签名公钥，kid=" + effectiveKid);
+        }
+        return key;
+    }
+
+    /**
+     * 是否包含指定 kid 的公钥
+     */
+    public boolean contains(String kid) {
+        return kid != null && keys.containsKey(kid);
+    }
+
+    /**
+     * 默认公钥的 kid
+     */
+    public String getDefaultKid() {
+        return defaultKid;
+    }
+
+    /**
+     * 扫描证书目录并启动后台监听线程
+     */
+    private void watch(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            log.warn("公钥证书目录不存在，跳过监听：{}", dir);
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                if (isCertificate(file)) {
+                    loadQuietly(file.toAbsolutePath().normalize());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("扫描公钥证书目录失败：{}", dir, e);
+        }
+
+        try {
+            WatchService ws = dir.getFileSystem().newWatchService();
+            dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchService = ws;
+            Thread watcher = new Thread(() -> pollEvents(dir, ws), "license-keyring-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            log.info("公钥环已加载 {} 个公钥，监听目录：{}", keys.size(), dir);
+        } catch (IOException e) {
+            log.warn("监听公钥证书目录失败：{}", dir, e);
+        }
+    }
+
+    private void pollEvents(Path dir, WatchService ws) {
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        continue;
+                    }
+                    Path file = dir.resolve((Path) event.context()).toAbsolutePath().normalize();
+                    if (!isCertificate(file)) {
+                        continue;
+                    }
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        unload(file);
+                    } else {
+                        loadQuietly(file);
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("公钥证书目录已失效，停止监听：{}", dir);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 关闭公钥环时退出
+        }
+    }
+
+    private String load(Path file) {
+        PublicKey publicKey = KeyStoreUtils.loadPublicKeyFromCer(file.toString());
+        String kid = KeyStoreUtils.keyId(publicKey);
+        keys.put(kid, publicKey);
+        String previous = pathIndex.put(file, kid);
+        // 同一文件被替换为新证书时，移除旧 kid（默认公钥除外）
+        if (previous != null && !previous.equals(kid) && !previous.equals(defaultKid)) {
+            keys.remove(previous);
+        }
+        return kid;
+    }
+
+    private void loadQuietly(Path file) {
+        try {
+            String kid = load(file);
+            log.info("公钥环加载证书：{}，kid={}", file, kid);
+        } catch (Exception e) {
+            // 文件可能仍在写入中，等待后续 MODIFY 事件
+            log.warn("公钥环加载证书失败：{}，{}", file, e.getMessage());
+        }
+    }
+
+    private void unload(Path file) {
+        String kid = pathIndex.remove(file);
+        if (kid != null && !kid.equals(defaultKid) && !pathIndex.containsValue(kid)) {
+            keys.remove(kid);
+            log.info("公钥环移除证书：{}，kid={}", file, kid);
+        }
+    }
+
+    private static boolean isCertificate(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".cer") || name.endsWith(".crt");
+    }
+
+    @Override
+    public void close() {
+        WatchService ws = watchService;
+        if (ws != null) {
+            try {
+                ws.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -43,6 +43,48 @@ public class LicenseConfig {
      */
     private ClientConfig client;
 
+    /**
+     * 签发配置项（批量签发线程池等）
+     * 对应 application.yml 中 license.issue
+     */
+    private IssueConfig issue = new IssueConfig();
+
+    /**
+     * 服务端校验配置项（校验结果缓存等）
+     * 对应 application.yml 中 license.verify
+     */
+    private VerifyConfig verify = new VerifyConfig();
+
+    /**
+     * 机器指纹采集配置项
+     * 对应 application.yml 中 license.fingerprint
+     */
+    private FingerprintConfig fingerprint = new FingerprintConfig();
+
+    /**
+     * License ID 序号分配配置
+     * 对应 application.yml 中 license.sequence
+     */
+    private SequenceConfig sequence = new SequenceConfig();
+
+    /**
+     * 时间回拨记录写入配置
+     * 对应 application.yml 中 license.time-guard
+     */
+    private TimeGuardConfig timeGuard = new TimeGuardConfig();
+
+    /**
+     * 签发登记簿配置
+     * 对应 application.yml 中 license.registry
+     */
+    private RegistryConfig registry = new RegistryConfig();
+
+    /**
+     * 到期提醒配置
+     * 对应 application.yml 中 license.expiry-notice
+     */
+    private ExpiryNoticeConfig expiryNotice = new ExpiryNoticeConfig();
+
     /**
      * 内部类：私钥相关配置
      */
@@ -59,6 +101,12 @@ public class LicenseConfig {
 
         /** 私钥条目的访问密码 */
         private String keyPass;
+
+        /** 签名器池大小（预先初始化的 Signature 实例数，默认 CPU 核数） */
+        private int signerPoolSize = Runtime.getRuntime().availableProcessors();
+
+        /** keystore 变更检测间隔（秒），文件修改时间或校验和变化时自动重新加载私钥 */
+        private long reloadIntervalSeconds = 30;
     }
 
     /**
@@ -68,6 +116,120 @@ public class LicenseConfig {
     public static class PublicKeyConfig {
         /** 公钥证书路径（.cer 格式） */
         private String cerPath;
+
+        /** 公钥证书目录（可选），用于多密钥与密钥轮换 */
+        private String cerDir;
+    }
+
+    /**
+     * 内部类：签发相关配置
+     */
+    @Data
+    public static class IssueConfig {
+        /** 签发工作线程数（默认 CPU 核数） */
+        private int workerThreads = Runtime.getRuntime().availableProcessors();
+
+        /** 批量签发时同时在途的最大任务数，超过后暂停读取请求体，限制内存占用 */
+        private int maxInFlight = Runtime.getRuntime().availableProcessors() * 4;
+
+        /** License payload 编码：json（默认）/ smile（二进制，体积更小、解析更快，加载时自动识别） */
+        private String payloadFormat = "json";
+
+        /** 异步签发任务队列容量，队列已满时新任务被拒绝（HTTP 429） */
+        private int jobQueueCapacity = 256;
+
+        /** 异步签发任务状态最多保留的条数 */
+        private int jobRetentionMaxEntries = 10000;
+
+        /** 异步签发任务状态保留时间（秒） */
+        private long jobRetentionSeconds = 3600;
+    }
+
+    /**
+     * 内部类：服务端校验相关配置
+     */
+    @Data
+    public static class VerifyConfig {
+        /** 校验结果缓存的最大条目数 */
+        private int cacheMaxEntries = 1024;
+
+        /** 校验结果缓存的存活时间（秒） */
+        private long cacheTtlSeconds = 300;
+
+        /** 硬件指纹至少一致的组件数：3 为完整匹配，2 为任意两项一致 */
+        private int minMatchedComponents = 3;
+
+        /** 批量校验的并行度（ForkJoinPool 工作线程数，默认 CPU 核数） */
+        private int bulkParallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 内部类：机器指纹采集相关配置
+     */
+    @Data
+    public static class FingerprintConfig {
+        /** 指纹快照刷新间隔（秒），小于等于 0 表示只在首次使用时采集一次 */
+        private long refreshIntervalSeconds = 300;
+    }
+
+    /**
+     * 内部类：License ID 序号分配配置
+     */
+    @Data
+    public static class SequenceConfig {
+        /** 序号存储：redis（默认）/ file（本地内存映射文件，离线签发）/ memory（进程内，仅测试） */
+        private String store = "redis";
+
+        /** 号段大小：每次从序号存储预留的序号数量，1 表示每个 ID 都访问一次序号存储 */
+        private int blockSize = 50;
+
+        /** file 存储的序号文件路径 */
+        private String filePath;
+
+        /** file 存储的初始槽位数量（每个 项目 + 客户 + 月份 占一个槽位，用完时自动扩容；已有文件容量较小时扩容到该值） */
+        private int fileCapacity = 8192;
+    }
+
+    /**
+     * 内部类：时间回拨记录写入配置
+     */
+    @Data
+    public static class TimeGuardConfig {
+        /** 时间记录后台写入间隔（毫秒） */
+        private long flushIntervalMillis = 1000;
+
+        /** 写入后是否 fsync 到磁盘 */
+        private boolean fsync = false;
+    }
+
+    /**
+     * 内部类：签发登记簿配置
+     */
+    @Data
+    public static class RegistryConfig {
+        /** 签发登记日志路径（NDJSON，追加写入），默认为 output-path 下的 license-registry.ndjson */
+        private String logPath;
+
+        /** 每条登记写入后是否 fsync 到磁盘 */
+        private boolean fsync = false;
+    }
+
+    /**
+     * 内部类：到期提醒配置
+     */
+    @Data
+    public static class ExpiryNoticeConfig {
+        /** 是否启用到期提醒定时任务 */
+        private boolean enabled = true;
+
+        /** 提前提醒天数：过期时间落在未来 leadDays 天内的 License 会发出到期事件 */
+        private int leadDays = 30;
+
+        /** 扫描间隔（毫秒） */
+        private long checkIntervalMillis = 3600_000L;
+
+        /** 每个到期事件最多包含的 License 数 */
+        private int batchSize = 100;
     }
 
     /**
@@ -81,6 +243,9 @@ public class LicenseConfig {
         /** 公钥证书路径（建议使用 ${license.public-key.cer-path} 引用） */
         private String publicKeyPath;
 
+        /** 公钥证书目录（建议使用 ${license.public-key.cer-dir} 引用） */
+        private String publicKeyDir;
+
         /** 上次启动时间记录文件（用于时间回拨防护） */
         private String timeRecordPath;
     }
@@ -0,0 +1,24 @@
+package org.example.licenseplatform.config;
+
+import org.example.licenseplatform.util.MachineFingerprintProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 机器指纹配置：把 license.fingerprint 配置应用到全局共享的指纹提供者
+ */
+@Configuration
+public class MachineFingerprintConfig {
+
+    @Autowired
+    private LicenseConfig licenseConfig;
+
+    @PostConstruct
+    public void init() {
+        long seconds = licenseConfig.getFingerprint().getRefreshIntervalSeconds();
+        MachineFingerprintProvider.getInstance().setRefreshIntervalMillis(TimeUnit.SECONDS.toMillis(seconds));
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.licenseplatform.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.util.InMemorySequenceStore;
+import org.example.licenseplatform.util.MappedFileSequenceStore;
+import org.example.licenseplatform.util.RedisSequenceStore;
+import org.example.licenseplatform.util.SequenceStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * 序号存储配置：按 license.sequence.store 选择 License ID 序号的存储后端
+ */
+@Slf4j
+@Configuration
+public class SequenceStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public SequenceStore sequenceStore(LicenseConfig licenseConfig, ObjectProvider<StringRedisTemplate> redisTemplate)
+            throws IOException {
+        LicenseConfig.SequenceConfig sequence = licenseConfig.getSequence();
+        String store = sequence.getStore() == null ? "redis" : sequence.getStore().trim().toLowerCase();
+        log.info("License ID 序号存储：{}", store);
+        switch (store) {
+            case "redis":
+                return new RedisSequenceStore(redisTemplate.getObject());
+            case "file":
+                if (sequence.getFilePath() == null) {
+                    throw new IllegalStateException("license.sequence.store=file 时必须配置 license.sequence.file-path");
+                }
+                return new MappedFileSequenceStore(Paths.get(sequence.getFilePath()), sequence.getFileCapacity());
+            case "memory":
+                return new InMemorySequenceStore();
+            default:
+                throw new IllegalStateException("不支持的序号存储：" + sequence.getStore());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.licenseplatform.config;
+
+import org.example.licenseplatform.util.TimeRollbackJournal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 时间回拨记录配置：把 license.time-guard 配置应用到全局的时间回拨日志
+ */
+@Configuration
+public class TimeGuardConfiguration {
+
+    @Autowired
+    private LicenseConfig licenseConfig;
+
+    @PostConstruct
+    public void init() {
+        LicenseConfig.TimeGuardConfig timeGuard = licenseConfig.getTimeGuard();
+        TimeRollbackJournal.configure(timeGuard.getFlushIntervalMillis(), timeGuard.isFsync());
+    }
+}
@@ -18,7 +18,13 @@ public class WebMvcConfig implements WebMvcConfigurer {
                 .addPathPatterns("/**") //  拦截所有路径
                 .excludePathPatterns(
                 "/license/generate", // License 生成接口
+                "/license/generate/batch", // License 批量生成接口
+                "/license/jobs/**", // 异步签发任务接口
                 "/license/verify",  // License 验证接口
+                "/license/verify/cache-stats", // 校验缓存统计
+                "/license/verify/bulk", // 批量校验
+                "/license/search", // 签发登记查询
+                "/license/expiring", // 即将到期查询
                  "/machine/info",   // 机器信息接口
                 "/health",          // 健康检查接口
                 "/actuator/**",     // Spring Actuator
@@ -0,0 +1,71 @@
+package org.example.licenseplatform.context;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 功能模块句柄：功能名在全局注册表中被分配一个整数 ID，授权快照以位图记录已启用的功能
+ *
+ * 调用方在初始化时解析一次句柄（通常存为 static final 字段），之后每次判断只需读取当前快照并检查一位，
+ * 没有装箱也没有哈希查找：
+ * <pre>
+ * private static final FeatureHandle EXPORT_EXCEL = FeatureHandle.of("exportExcel");
+ * if (EXPORT_EXCEL.isEnabled()) { ... }
+ * </pre>
+ */
+public final class FeatureHandle {
+
+    private static final ConcurrentMap<String, FeatureHandle> REGISTRY = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final String name;
+
+    private final int id;
+
+    private FeatureHandle(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * 解析功能句柄（同名功能始终返回同一个句柄）
+     *
+     * @param name 功能模块名（如 exportExcel）
+     */
+    public static FeatureHandle of(String name) {
+        FeatureHandle handle = REGISTRY.get(name);
+        if (handle != null) {
+            return handle;
+        }
+        return REGISTRY.computeIfAbsent(name, n -> new FeatureHandle(n, NEXT_ID.getAndIncrement()));
+    }
+
+    /**
+     * 查找已注册的功能句柄，不存在时返回 null（不会注册新功能）
+     */
+    static FeatureHandle lookup(String name) {
+        return REGISTRY.get(name);
+    }
+
+    /**
+     * 当前授权是否启用该功能
+     */
+    public boolean isEnabled() {
+        return LicenseContext.snapshot().isEnabled(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureHandle(" + name + "#" + id + ")";
+    }
+}
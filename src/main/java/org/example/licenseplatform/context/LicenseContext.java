@@ -3,20 +3,22 @@ package org.example.licenseplatform.context;
 import org.example.licenseplatform.model.LicenseContent;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * LicenseContext 是 License 校验通过后全局缓存授权状态的上下文工具类。
  * 可用于在系统任意位置判断是否通过授权、当前授权内容、功能是否启用等信息。
  *
+ * 授权状态以不可变快照（LicenseSnapshot）的形式通过唯一的 volatile 引用发布，
+ * 读取方每次只做一次 volatile 读，看到的授权内容、有效期和功能位图始终来自同一次校验。
+ * 快照发布后由 LicenseExpiryScheduler 在过期时刻将上下文切换为未授权，并提前发出即将过期告警。
+ *
  * ⚠ 注意：LicenseContext 一般由 LicenseVerifier 在校验通过后注入初始化。
  */
 public class LicenseContext {
 
-    /** 标识当前系统是否通过 License 校验（默认 false） */
-    private static volatile boolean verified = false;
-
-    /** 全局缓存的 License 内容（包括功能模块、客户信息等） */
-    private static LicenseContent license;
+    /** 当前授权状态快照（默认未授权） */
+    private static final AtomicReference<LicenseSnapshot> CURRENT = new AtomicReference<>(LicenseSnapshot.UNLICENSED);
 
     /**
      * 校验通过后，注入授权状态和授权内容
@@ -24,8 +26,18 @@ public class LicenseContext {
      * @param content 校验后的 LicenseContent 内容
      */
     public static void setVerified(LicenseContent content) {
-        verified = true;
-        license = content;
+        LicenseSnapshot snapshot = LicenseSnapshot.of(content);
+        CURRENT.set(snapshot);
+        LicenseExpiryScheduler.schedule(snapshot);
+    }
+
+    /**
+     * 获取当前授权状态快照（需要同时读取多项授权信息时使用，保证一致性）
+     *
+     * @return 当前快照，未授权时为未授权快照（非 null）
+     */
+    public static LicenseSnapshot snapshot() {
+        return CURRENT.get();
     }
 
     /**
@@ -34,7 +46,16 @@ public class LicenseContext {
      * @return true 表示校验通过
      */
     public static boolean isVerified() {
-        return verified;
+        return CURRENT.get().isVerified();
+    }
+
+    /**
+     * 当前是否已授权且处于有效期内（请求拦截使用：一次 volatile 读 + 一次比较，不产生对象）
+     *
+     * @return true 表示可以放行
+     */
+    public static boolean isValidNow() {
+        return CURRENT.get().isValidAt(System.currentTimeMillis());
     }
 
     /**
@@ -43,22 +64,19 @@ public class LicenseContext {
      * @return LicenseContent 对象
      */
     public static LicenseContent getLicense() {
-        return license;
+        return CURRENT.get().getLicense();
     }
 
     /**
      * 判断某功能模块是否启用
+     * 高频调用处建议先通过 {@link FeatureHandle#of(String)} 解析句柄，再调用 {@link FeatureHandle#isEnabled()}
      *
      * @param featureKey 功能模块名（如 exportExcel）
      * @return true 表示已授权该功能
      */
     public static boolean isFeatureEnabled(String featureKey) {
-        if (!verified || license == null || license.getFeatures() == null) {
-            return false;
-        }
-
-        Boolean enabled = license.getFeatures().get(featureKey);
-        return Boolean.TRUE.equals(enabled);
+        FeatureHandle handle = FeatureHandle.lookup(featureKey);
+        return handle != null && CURRENT.get().isEnabled(handle);
     }
 
     /**
@@ -68,27 +86,35 @@ public class LicenseContext {
      * @return Object 对象，可自行强转为 FeatureSetting 或 Map
      */
     public static Object getFeatureRaw(String featureKey) {
-        if (!verified || license == null || license.getFeatures() == null) {
-            return null;
-        }
-        return license.getFeatures().get(featureKey);
+        Map<String, Boolean> features = CURRENT.get().getFeatures();
+        return features == null ? null : features.get(featureKey);
     }
 
     /**
      * 获取所有功能配置 Map（如 exportExcel -> true）
      *
-     * @return Map<String, Boolean>
+     * @return 只读的 Map<String, Boolean>
      */
     public static Map<String, Boolean> getAllFeatures() {
-        if (!verified || license == null) return null;
-        return license.getFeatures();
+        LicenseSnapshot snapshot = CURRENT.get();
+        if (!snapshot.isVerified()) return null;
+        return snapshot.getFeatures();
     }
 
     /**
      * 清空上下文（用于测试或重新加载 License）
      */
     public static void reset() {
-        verified = false;
-        license = null;
+        CURRENT.set(LicenseSnapshot.UNLICENSED);
+        LicenseExpiryScheduler.cancel();
+    }
+
+    /**
+     * 将指定快照切换为未授权；若期间已发布了新的快照（如热加载了续期 License）则不做任何修改
+     *
+     * @return true 表示已切换
+     */
+    static boolean expire(LicenseSnapshot expected) {
+        return CURRENT.compareAndSet(expected, LicenseSnapshot.UNLICENSED);
     }
 }
@@ -0,0 +1,74 @@
+package org.example.licenseplatform.context;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * License 过期调度器：为当前发布的授权快照安排即将过期告警和过期时刻的状态切换
+ *
+ * 每次发布新快照都会取消上一份快照的定时任务；过期时通过 CAS 切换为未授权，
+ * 若此前已热加载了续期的 License，旧快照的过期任务不会覆盖新快照。
+ * 调度基于相对延迟，系统时钟被调整时以拦截器按请求比较的有效期为准。
+ */
+@Slf4j
+final class LicenseExpiryScheduler {
+
+    /** 过期前告警的提前天数 */
+    private static final int[] WARN_BEFORE_DAYS = {30, 7, 1};
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "license-expiry-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final List<ScheduledFuture<?>> TASKS = new ArrayList<>();
+
+    private LicenseExpiryScheduler() {
+    }
+
+    /**
+     * 为快照安排告警与过期任务（替换之前的全部任务）
+     */
+    static synchronized void schedule(LicenseSnapshot snapshot) {
+        cancel();
+        long notAfter = snapshot.getNotAfter();
+        if (notAfter == Long.MAX_VALUE) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (int days : WARN_BEFORE_DAYS) {
+            long warnAt = notAfter - TimeUnit.DAYS.toMillis(days);
+            if (warnAt > now) {
+                TASKS.add(SCHEDULER.schedule(() -> log.warn("License 将在 {} 天后过期，过期时间：{}，请及时续期", days, notAfter),
+                        warnAt - now, TimeUnit.MILLISECONDS));
+            }
+        }
+        // 过期时间包含当毫秒，下一毫秒起失效
+        long delay = Math.max(0, notAfter + 1 - now);
+        TASKS.add(SCHEDULER.schedule(() -> expire(snapshot), delay, TimeUnit.MILLISECONDS));
+        log.info("License 过期调度已更新，过期时间：{}，剩余 {} 小时", notAfter, TimeUnit.MILLISECONDS.toHours(delay));
+    }
+
+    /**
+     * 取消全部已安排的任务
+     */
+    static synchronized void cancel() {
+        for (ScheduledFuture<?> task : TASKS) {
+            task.cancel(false);
+        }
+        TASKS.clear();
+    }
+
+    private static void expire(LicenseSnapshot snapshot) {
+        if (LicenseContext.expire(snapshot)) {
+            log.error("License 已过期，授权已失效，过期时间：{}", snapshot.getNotAfter());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.licenseplatform.context;
+
+import org.example.licenseplatform.model.LicenseContent;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 授权状态快照：一次 License 校验结果的不可变视图
+ *
+ * 功能开关在创建快照时编译为位图（按 FeatureHandle 的 ID 置位），之后的功能判断无需装箱和 Map 查找；
+ * 功能 Map 为创建时的只读副本，外部修改 LicenseContent 不会影响已发布的快照。
+ * 生效 / 过期时间在创建时展开为 long，按请求判断有效期只需一次比较。
+ */
+public final class LicenseSnapshot {
+
+    /** 未授权状态 */
+    static final LicenseSnapshot UNLICENSED =
+            new LicenseSnapshot(false, null, new long[0], null, Long.MAX_VALUE, Long.MIN_VALUE);
+
+    private final boolean verified;
+    private final LicenseContent license;
+    private final long[] featureBits;
+    private final Map<String, Boolean> features;
+    private final long notBefore;
+    private final long notAfter;
+
+    private LicenseSnapshot(boolean verified, LicenseContent license, long[] featureBits,
+                            Map<String, Boolean> features, long notBefore, long notAfter) {
+        this.verified = verified;
+        this.license = license;
+        this.featureBits = featureBits;
+        this.features = features;
+        this.notBefore = notBefore;
+        this.notAfter = notAfter;
+    }
+
+    /**
+     * 根据校验通过的 License 创建快照
+     */
+    static LicenseSnapshot of(LicenseContent content) {
+        Map<String, Boolean> source = content.getFeatures();
+        Map<String, Boolean> copy = null;
+        long[] bits = new long[0];
+        if (source != null) {
+            copy = Collections.unmodifiableMap(new LinkedHashMap<>(source));
+            int maxId = -1;
+            for (String name : copy.keySet()) {
+                maxId = Math.max(maxId, FeatureHandle.of(name).getId());
+            }
+            bits = new long[(maxId >> 6) + 1];
+            for (Map.Entry<String, Boolean> entry : copy.entrySet()) {
+                if (Boolean.TRUE.equals(entry.getValue())) {
+                    int id = FeatureHandle.of(entry.getKey()).getId();
+                    bits[id >> 6] |= 1L << id;
+                }
+            }
+        }
+        long notBefore = content.getIssueDate() == null ? Long.MIN_VALUE : content.getIssueDate();
+        long notAfter = content.getExpireDate() == null ? Long.MAX_VALUE : content.getExpireDate();
+        return new LicenseSnapshot(true, content, bits, copy, notBefore, notAfter);
+    }
+
+    /**
+     * 指定时刻 License 是否在有效期内（未授权快照始终返回 false）
+     *
+     * @param nowMillis 毫秒时间戳
+     */
+    public boolean isValidAt(long nowMillis) {
+        return nowMillis >= notBefore && nowMillis <= notAfter;
+    }
+
+    /**
+     * 功能是否启用：位图中检查一位
+     */
+    public boolean isEnabled(FeatureHandle handle) {
+        int id = handle.getId();
+        int word = id >> 6;
+        return word < featureBits.length && (featureBits[word] & (1L << id)) != 0;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    /**
+     * 校验通过的 License 内容（请勿修改）
+     */
+    public LicenseContent getLicense() {
+        return license;
+    }
+
+    /**
+     * 生效时间（毫秒时间戳），License 未设置时为 Long.MIN_VALUE
+     */
+    public long getNotBefore() {
+        return notBefore;
+    }
+
+    /**
+     * 过期时间（毫秒时间戳，含当毫秒），License 未设置时为 Long.MAX_VALUE
+     */
+    public long getNotAfter() {
+        return notAfter;
+    }
+
+    /**
+     * 功能配置的只读副本（未授权或 License 未配置功能时为 null）
+     */
+    public Map<String, Boolean> getFeatures() {
+        return features;
+    }
+}
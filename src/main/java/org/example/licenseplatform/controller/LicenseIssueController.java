@@ -1,20 +1,53 @@
 package org.example.licenseplatform.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.example.licenseplatform.common.ErrorCode;
 import org.example.licenseplatform.common.Result;
+import org.example.licenseplatform.model.LicenseJob;
 import org.example.licenseplatform.model.LicenseRequest;
+import org.example.licenseplatform.service.LicenseBatchService;
+import org.example.licenseplatform.service.LicenseJobService;
 import org.example.licenseplatform.service.LicenseService;
+import org.example.licenseplatform.util.JsonUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/license")
 public class LicenseIssueController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ObjectMapper objectMapper = JsonUtils.getMapper();
+
+    /** NDJSON 每行一个对象，不能使用缩进输出 */
+    private final ObjectWriter lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+
     @Autowired
     private LicenseService licenseService;
 
+    @Autowired
+    private LicenseBatchService licenseBatchService;
+
+    @Autowired
+    private LicenseJobService licenseJobService;
+
     @PostMapping("/generate")
     public Result<Boolean> generateLicense(@Valid @RequestBody LicenseRequest request) {
         boolean success = licenseService.generateLicense(request);
@@ -24,4 +57,68 @@ public class LicenseIssueController {
             return Result.fail(ErrorCode.LICENSE_GEN_FAILED.getCode(), ErrorCode.LICENSE_GEN_FAILED.getMessage());
         }
     }
+
+    /**
+     * 异步签发：立即返回任务 ID（HTTP 202），签发在后台线程池完成；队列已满时返回 HTTP 429
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<Result<LicenseJob>> submitJob(@Valid @RequestBody LicenseRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Result.ok(licenseJobService.submit(request)));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Result.fail(HttpStatus.TOO_MANY_REQUESTS.value(), "签发队列已满，请稍后重试"));
+        }
+    }
+
+    /**
+     * 异步签发任务统计：队列深度、计数与耗时分位数
+     */
+    @GetMapping("/jobs/stats")
+    public Result<Map<String, Object>> jobStats() {
+        return Result.ok(licenseJobService.getStats());
+    }
+
+    /**
+     * 查询异步签发任务状态
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Result<LicenseJob>> getJob(@PathVariable String jobId) {
+        LicenseJob job = licenseJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Result.fail(HttpStatus.NOT_FOUND.value(), "任务不存在或已过期：" + jobId));
+        }
+        return ResponseEntity.ok(Result.ok(job));
+    }
+
+    /**
+     * 批量签发：请求体为 LicenseRequest 的 JSON 数组或 NDJSON 流，
+     * 响应为 NDJSON，每签发完成一条立即输出一行 LicenseIssueResult
+     */
+    @PostMapping(value = "/generate/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"},
+            produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> generateBatch(HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+        StreamingResponseBody stream = out -> {
+            // 数组与 NDJSON 均由 MappingIterator 逐条解析，不会一次性读入整个请求体
+            try (MappingIterator<LicenseRequest> requests = objectMapper.readerFor(LicenseRequest.class).readValues(body)) {
+                licenseBatchService.issueBatch(requests, result -> writeLine(out, result));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(stream);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(lineWriter.writeValueAsBytes(value));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package org.example.licenseplatform.controller;
+
+import org.example.licenseplatform.common.ErrorCode;
+import org.example.licenseplatform.common.Result;
+import org.example.licenseplatform.model.LicenseSearchPage;
+import org.example.licenseplatform.service.LicenseRegistry;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/license")
+public class LicenseQueryController {
+
+    private final LicenseRegistry licenseRegistry;
+
+    public LicenseQueryController(LicenseRegistry licenseRegistry) {
+        this.licenseRegistry = licenseRegistry;
+    }
+
+    /**
+     * 查询已签发的 License：条件均可选，过期时间为毫秒时间戳（含边界），
+     * 把返回的 nextCursor 原样作为 cursor 传入即可获取下一页
+     */
+    @GetMapping("/search")
+    public Result<LicenseSearchPage> search(@RequestParam(required = false) String customer,
+                                            @RequestParam(required = false) String projectId,
+                                            @RequestParam(required = false) Long expireFrom,
+                                            @RequestParam(required = false) Long expireTo,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "50") int limit) {
+        if (!licenseRegistry.isAvailable()) {
+            return Result.fail(503, "签发登记簿不可用");
+        }
+        try {
+            return Result.ok(licenseRegistry.search(customer, projectId, expireFrom, expireTo, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return Result.fail(ErrorCode.PARAM_ERROR.getCode(), e.getMessage());
+        }
+    }
+
+    /**
+     * 查询未来 days 天内到期的 License（不含已过期），按过期时间升序
+     */
+    @GetMapping("/expiring")
+    public Result<LicenseSearchPage> expiring(@RequestParam(defaultValue = "30") int days,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "50") int limit) {
+        if (days <= 0) {
+            return Result.fail(ErrorCode.PARAM_ERROR.getCode(), "days 必须大于 0");
+        }
+        if (!licenseRegistry.isAvailable()) {
+            return Result.fail(503, "签发登记簿不可用");
+        }
+        long now = System.currentTimeMillis();
+        long to = now + TimeUnit.DAYS.toMillis(days);
+        try {
+            return Result.ok(licenseRegistry.search(null, null, now, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return Result.fail(ErrorCode.PARAM_ERROR.getCode(), e.getMessage());
+        }
+    }
+}
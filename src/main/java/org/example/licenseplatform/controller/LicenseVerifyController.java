@@ -1,21 +1,49 @@
 // LicenseVerifyController.java
 package org.example.licenseplatform.controller;
 
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.common.ErrorCode;
 import org.example.licenseplatform.common.Result;
+import org.example.licenseplatform.model.LicenseAuditRequest;
+import org.example.licenseplatform.model.LicenseAuditSummary;
+import org.example.licenseplatform.service.LicenseAuditService;
 import org.example.licenseplatform.service.LicenseVerifierService;
+import org.example.licenseplatform.util.JsonUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/license")
 @Slf4j
 public class LicenseVerifyController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final LicenseVerifierService verifierService;
 
-    public LicenseVerifyController(LicenseVerifierService verifierService) {
+    private final LicenseAuditService auditService;
+
+    /** NDJSON 每行一个对象，不能使用缩进输出 */
+    private final ObjectWriter lineWriter = JsonUtils.getMapper().writer().without(SerializationFeature.INDENT_OUTPUT);
+
+    public LicenseVerifyController(LicenseVerifierService verifierService, LicenseAuditService auditService) {
         this.verifierService = verifierService;
+        this.auditService = auditService;
     }
 
     @Value("${license.client.public-key-path}")
@@ -24,9 +52,60 @@ public class LicenseVerifyController {
     @Value("${license.client.time-record-path}")
     private String timeRecordPath;
 
+    @Value("${license.output-path:}")
+    private String outputPath;
+
     @GetMapping("/verify")
     public Result verify(@RequestParam String licensePath) {
         log.info("开始验证 License: {}", licensePath);
         return verifierService.verify(licensePath, publicKeyPath, timeRecordPath);
     }
+
+    /**
+     * 批量校验：请求体指定目录（递归查找 .lic）或文件列表，均为空时校验 license.output-path；
+     * 只校验文件格式、签名与有效期，响应为 NDJSON，每个文件一行 LicenseAuditResult，最后一行为 LicenseAuditSummary
+     */
+    @PostMapping(value = "/verify/bulk", produces = "application/x-ndjson")
+    public ResponseEntity<?> verifyBulk(@RequestBody(required = false) LicenseAuditRequest request) {
+        List<String> paths = request != null ? request.getPaths() : null;
+        String directory = request != null && request.getDirectory() != null ? request.getDirectory() : outputPath;
+        if ((paths == null || paths.isEmpty()) && (directory == null || directory.isEmpty())) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(Result.fail(ErrorCode.PARAM_ERROR.getCode(), "请指定待校验的目录或文件列表"));
+        }
+
+        StreamingResponseBody stream = out -> {
+            Stream<Path> files = paths != null && !paths.isEmpty()
+                    ? paths.stream().map(Paths::get)
+                    : Files.walk(Paths.get(directory))
+                    .filter(path -> path.getFileName().toString().endsWith(".lic") && Files.isRegularFile(path));
+            // Files.walk 按需遍历目录，不会一次性列出全部文件
+            try (Stream<Path> closing = files) {
+                LicenseAuditSummary summary = auditService.audit(closing.iterator(), publicKeyPath,
+                        result -> writeLine(out, result));
+                writeLine(out, summary);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(stream);
+    }
+
+    /**
+     * 校验结果缓存统计
+     */
+    @GetMapping("/verify/cache-stats")
+    public Result<Map<String, Object>> cacheStats() {
+        return Result.ok(verifierService.getCacheStats());
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(lineWriter.writeValueAsBytes(value));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.example.licenseplatform.context.LicenseContext;
+import org.example.licenseplatform.util.LicenseMetrics;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
@@ -20,9 +21,10 @@ public class LicenseVerifyInterceptor implements HandlerInterceptor {
      */
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        // 如果未通过授权校验，拒绝请求
-        if (!LicenseContext.isVerified()) {
-            log.warn("拒绝访问：未通过 License 授权，URI = {}", request.getRequestURI());
+        // 如果未通过授权校验或不在有效期内，拒绝请求
+        if (!LicenseContext.isValidNow()) {
+            LicenseMetrics.interceptorDecision(false);
+            log.warn("拒绝访问：未通过 License 授权或 License 不在有效期内，URI = {}", request.getRequestURI());
 
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             response.setContentType("application/json;charset=UTF-8");
@@ -38,6 +40,7 @@ public class LicenseVerifyInterceptor implements HandlerInterceptor {
         }
 
         // 已授权，正常放行
+        LicenseMetrics.interceptorDecision(true);
         return true;
     }
 }
@@ -0,0 +1,18 @@
+package org.example.licenseplatform.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量校验请求：指定目录（递归查找 .lic 文件）或文件列表，两者都为空时校验 license.output-path
+ */
+@Data
+public class LicenseAuditRequest {
+
+    /** 待校验的目录 */
+    private String directory;
+
+    /** 待校验的文件路径列表 */
+    private List<String> paths;
+}
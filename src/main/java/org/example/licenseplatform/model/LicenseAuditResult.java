@@ -0,0 +1,45 @@
+package org.example.licenseplatform.model;
+
+import lombok.Data;
+
+/**
+ * 批量校验中单个 License 文件的结果（逐行输出）
+ */
+@Data
+public class LicenseAuditResult {
+
+    /** 文件路径 */
+    private String path;
+
+    /** 是否校验通过 */
+    private boolean success;
+
+    /** 结果码：200 通过，其余与 /license/verify 的错误码一致 */
+    private int code;
+
+    /** 结果说明 */
+    private String message;
+
+    /** 授权编号（文件可解析时填充） */
+    private String licenseId;
+
+    /** 客户名称（文件可解析时填充） */
+    private String customer;
+
+    /** 授权过期时间（毫秒时间戳） */
+    private Long expireDate;
+
+    public static LicenseAuditResult of(String path, int code, String message, LicenseContent content) {
+        LicenseAuditResult result = new LicenseAuditResult();
+        result.setPath(path);
+        result.setSuccess(code == 200);
+        result.setCode(code);
+        result.setMessage(message);
+        if (content != null) {
+            result.setLicenseId(content.getLicenseId());
+            result.setCustomer(content.getCustomer());
+            result.setExpireDate(content.getExpireDate());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.licenseplatform.model;
+
+import lombok.Data;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 批量校验汇总（作为结果流的最后一行输出）
+ */
+@Data
+public class LicenseAuditSummary {
+
+    /** 固定为 true，用于和逐个文件的结果行区分 */
+    private final boolean summary = true;
+
+    /** 校验的文件总数 */
+    private int total;
+
+    /** 通过数 */
+    private int passed;
+
+    /** 未通过数 */
+    private int failed;
+
+    /** 未通过的结果码 -> 数量 */
+    private Map<Integer, Integer> failuresByCode = new TreeMap<>();
+
+    /** 总耗时（毫秒） */
+    private long elapsedMillis;
+
+    public void add(LicenseAuditResult result) {
+        total++;
+        if (result.isSuccess()) {
+            passed++;
+        } else {
+            failed++;
+            failuresByCode.merge(result.getCode(), 1, Integer::sum);
+        }
+    }
+}
@@ -36,6 +36,12 @@ public class LicenseContent {
     /** 授权模式（standalone / cluster），用于行为控制 */
     private String mode;
 
+    /** 签名算法（SHA256withRSA / Ed25519 / SHA256withECDSA），为空表示 SHA256withRSA */
+    private String alg;
+
+    /** 签名密钥 ID（签名公钥的指纹），校验端据此从公钥环中选取验签公钥 */
+    private String kid;
+
     /** 首次使用时间（毫秒时间戳），用于记录首次加载并防止复制横向扩散 */
     private Long firstUsedAt;
 
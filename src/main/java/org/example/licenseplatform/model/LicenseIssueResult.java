@@ -0,0 +1,42 @@
+package org.example.licenseplatform.model;
+
+import lombok.Data;
+
+/**
+ * 单个 License 签发结果（批量签发时逐条返回）
+ */
+@Data
+public class LicenseIssueResult {
+
+    /** 请求在批次中的序号（从 0 开始） */
+    private int index;
+
+    /** 是否签发成功 */
+    private boolean success;
+
+    /** 生成的授权编号 */
+    private String licenseId;
+
+    /** 生成的 .lic 文件路径 */
+    private String filePath;
+
+    /** 失败原因（成功时为空） */
+    private String error;
+
+    public static LicenseIssueResult ok(int index, String licenseId, String filePath) {
+        LicenseIssueResult result = new LicenseIssueResult();
+        result.setIndex(index);
+        result.setSuccess(true);
+        result.setLicenseId(licenseId);
+        result.setFilePath(filePath);
+        return result;
+    }
+
+    public static LicenseIssueResult fail(int index, String error) {
+        LicenseIssueResult result = new LicenseIssueResult();
+        result.setIndex(index);
+        result.setSuccess(false);
+        result.setError(error);
+        return result;
+    }
+}
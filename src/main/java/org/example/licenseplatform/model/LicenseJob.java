@@ -0,0 +1,45 @@
+package org.example.licenseplatform.model;
+
+import lombok.Data;
+
+/**
+ * 异步签发任务状态（由签发线程更新，查询接口读取）
+ */
+@Data
+public class LicenseJob {
+
+    public enum Status {
+        /** 排队中 */
+        QUEUED,
+        /** 签发中 */
+        RUNNING,
+        /** 签发成功 */
+        SUCCEEDED,
+        /** 签发失败 */
+        FAILED
+    }
+
+    /** 任务 ID */
+    private final String jobId;
+
+    /** 任务状态 */
+    private volatile Status status = Status.QUEUED;
+
+    /** 生成的授权编号（成功后填充） */
+    private volatile String licenseId;
+
+    /** 生成的 .lic 文件路径（成功后填充） */
+    private volatile String filePath;
+
+    /** 失败原因 */
+    private volatile String error;
+
+    /** 提交时间（毫秒时间戳） */
+    private final long submittedAt;
+
+    /** 开始签发时间（毫秒时间戳） */
+    private volatile Long startedAt;
+
+    /** 结束时间（毫秒时间戳） */
+    private volatile Long finishedAt;
+}
@@ -0,0 +1,59 @@
+package org.example.licenseplatform.model;
+
+import lombok.Data;
+
+/**
+ * 签发登记记录：已签发 License 的元数据（不含绑定机器明细和签名），写入签发登记日志
+ */
+@Data
+public class LicenseRecord {
+
+    /** 授权编号 */
+    private String licenseId;
+
+    /** 项目 ID */
+    private String projectId;
+
+    /** 客户名称 */
+    private String customer;
+
+    /** 授权生效时间（毫秒时间戳） */
+    private Long issueDate;
+
+    /** 授权过期时间（毫秒时间戳） */
+    private Long expireDate;
+
+    /** 授权模式（standalone / cluster） */
+    private String mode;
+
+    /** 绑定机器数量 */
+    private int machineCount;
+
+    /** 签名算法 */
+    private String alg;
+
+    /** 签名密钥 ID */
+    private String kid;
+
+    /** .lic 文件路径 */
+    private String filePath;
+
+    /** 签发时间（毫秒时间戳） */
+    private long issuedAt;
+
+    public static LicenseRecord of(LicenseContent content, String filePath) {
+        LicenseRecord record = new LicenseRecord();
+        record.setLicenseId(content.getLicenseId());
+        record.setProjectId(content.getProjectId());
+        record.setCustomer(content.getCustomer());
+        record.setIssueDate(content.getIssueDate());
+        record.setExpireDate(content.getExpireDate());
+        record.setMode(content.getMode());
+        record.setMachineCount(content.getBoundMachines() == null ? 0 : content.getBoundMachines().size());
+        record.setAlg(content.getAlg());
+        record.setKid(content.getKid());
+        record.setFilePath(filePath);
+        record.setIssuedAt(System.currentTimeMillis());
+        return record;
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.licenseplatform.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 签发登记查询的一页结果
+ */
+@Data
+public class LicenseSearchPage {
+
+    /** 本页记录 */
+    private List<LicenseRecord> items;
+
+    /** 下一页游标（没有更多数据时为空），原样传回 cursor 参数即可翻页 */
+    private String nextCursor;
+
+    public LicenseSearchPage(List<LicenseRecord> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.licenseplatform.model;
+
+import lombok.Getter;
+
+/**
+ * 从 .lic 文件解码后的 License：授权内容 + 参与签名的原始字节 + 分离签名
+ *
+ * 新格式（LIC2）的签名字节就是文件中的 payload 区段，验签直接对这段字节做一次摘要；
+ * 旧格式（整份 JSON 内嵌 signature 字段）的签名字节通过去掉签名后重新序列化得到。
+ */
+@Getter
+public class SignedLicense {
+
+    /** 授权内容 */
+    private final LicenseContent content;
+
+    /** 签名数据所在的字节数组（新格式为整个文件内容，避免复制） */
+    private final byte[] data;
+
+    /** 签名数据在 data 中的起始位置 */
+    private final int payloadOffset;
+
+    /** 签名数据长度 */
+    private final int payloadLength;
+
+    /** Base64 编码的签名 */
+    private final String signature;
+
+    /** 签名算法 */
+    private final String alg;
+
+    /** 签名密钥 ID */
+    private final String kid;
+
+    /** 是否为旧格式 License 文件 */
+    private final boolean legacy;
+
+    public SignedLicense(LicenseContent content, byte[] data, int payloadOffset, int payloadLength,
+                         String signature, String alg, String kid, boolean legacy) {
+        this.content = content;
+        this.data = data;
+        this.payloadOffset = payloadOffset;
+        this.payloadLength = payloadLength;
+        this.signature = signature;
+        this.alg = alg;
+        this.kid = kid;
+        this.legacy = legacy;
+    }
+}
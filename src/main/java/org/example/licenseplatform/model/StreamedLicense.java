@@ -0,0 +1,52 @@
+package org.example.licenseplatform.model;
+
+import lombok.Getter;
+
+/**
+ * 流式加载的 License：授权内容（不含绑定机器明细）+ 加载过程中得出的签名与硬件结论
+ *
+ * 绑定机器列表在解析时逐台与当前机器比对后即丢弃，content 中的 boundMachines 为空，
+ * 只保留机器数量与比对结果，内存占用不随授权机器数量增长。
+ */
+@Getter
+public class StreamedLicense {
+
+    /** 授权内容（boundMachines 为空，signature 为文件头中的签名） */
+    private final LicenseContent content;
+
+    /** 签名算法 */
+    private final String alg;
+
+    /** 签名密钥 ID */
+    private final String kid;
+
+    /** 签名是否有效 */
+    private final boolean signatureValid;
+
+    /** 绑定机器数量 */
+    private final int machineCount;
+
+    /** 第一台绑定机器是否与当前机器一致（standalone 模式只看第一台） */
+    private final boolean firstMachineMatched;
+
+    /** 是否有任意一台绑定机器与当前机器一致 */
+    private final boolean anyMachineMatched;
+
+    public StreamedLicense(LicenseContent content, String alg, String kid, boolean signatureValid,
+                           int machineCount, boolean firstMachineMatched, boolean anyMachineMatched) {
+        this.content = content;
+        this.alg = alg;
+        this.kid = kid;
+        this.signatureValid = signatureValid;
+        this.machineCount = machineCount;
+        this.firstMachineMatched = firstMachineMatched;
+        this.anyMachineMatched = anyMachineMatched;
+    }
+
+    /**
+     * 当前机器是否被授权：standalone 模式只比对第一台机器，cluster 模式任意一台一致即可
+     */
+    public boolean isMachineAuthorized() {
+        return "standalone".equalsIgnoreCase(content.getMode()) ? firstMachineMatched : anyMachineMatched;
+    }
+}
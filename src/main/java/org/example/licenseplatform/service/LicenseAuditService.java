@@ -0,0 +1,76 @@
+package org.example.licenseplatform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.config.LicenseConfig;
+import org.example.licenseplatform.model.LicenseAuditResult;
+import org.example.licenseplatform.model.LicenseAuditSummary;
+import org.example.licenseplatform.util.BoundedCompletion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 批量校验服务：在 ForkJoinPool 上并行校验大量 License 文件，按完成顺序逐条回调结果，最后返回汇总
+ *
+ * 与批量签发共用 BoundedCompletion，同时在途的文件数限制为并行度的 4 倍，
+ * 因此目录中无论有多少文件，内存中只保留有限个待处理任务与结果。
+ */
+@Slf4j
+@Service
+public class LicenseAuditService {
+
+    private final LicenseVerifierService verifierService;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    @Autowired
+    public LicenseAuditService(LicenseVerifierService verifierService, LicenseConfig licenseConfig) {
+        this.verifierService = verifierService;
+        int parallelism = Math.max(1, licenseConfig.getVerify().getBulkParallelism());
+        this.maxInFlight = parallelism * 4;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("license-audit-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * 批量校验
+     *
+     * @param paths         待校验的文件（可以是按需遍历目录的迭代器）
+     * @param publicKeyPath License 未声明 kid 时使用的证书路径
+     * @param sink          结果回调，在调用线程中按完成顺序逐条调用
+     * @return 汇总
+     */
+    public LicenseAuditSummary audit(Iterator<Path> paths, String publicKeyPath, Consumer<LicenseAuditResult> sink)
+            throws InterruptedException {
+        long start = System.currentTimeMillis();
+        LicenseAuditSummary summary = new LicenseAuditSummary();
+        BoundedCompletion.run(pool, maxInFlight, paths, (index, path) -> verifierService.audit(path, publicKeyPath),
+                result -> {
+                    summary.add(result);
+                    sink.accept(result);
+                });
+
+        summary.setElapsedMillis(System.currentTimeMillis() - start);
+        log.info("批量校验完成，共 {} 个文件，通过 {} 个，未通过 {} 个，耗时 {} ms",
+                summary.getTotal(), summary.getPassed(), summary.getFailed(), summary.getElapsedMillis());
+        return summary;
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.licenseplatform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.config.LicenseConfig;
+import org.example.licenseplatform.model.LicenseIssueResult;
+import org.example.licenseplatform.model.LicenseRequest;
+import org.example.licenseplatform.util.BoundedCompletion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 批量签发服务：在有界线程池上并行签名，按完成顺序逐条回调结果
+ *
+ * 由 BoundedCompletion 执行，同时在途的任务数受 license.issue.max-in-flight 限制，达到上限后暂停读取请求，
+ * 因此请求体无论多大，内存中只保留有限个待处理请求与结果。
+ */
+@Slf4j
+@Service
+public class LicenseBatchService {
+
+    private final LicenseService licenseService;
+    private final int maxInFlight;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public LicenseBatchService(LicenseService licenseService, LicenseConfig licenseConfig) {
+        this.licenseService = licenseService;
+        LicenseConfig.IssueConfig issueConfig = licenseConfig.getIssue();
+        int threads = Math.max(1, issueConfig.getWorkerThreads());
+        this.maxInFlight = Math.max(threads, issueConfig.getMaxInFlight());
+
+        AtomicInteger counter = new AtomicInteger();
+        // 队列长度由 maxInFlight 间接约束，提交方在达到上限前会先取回已完成的结果
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "license-issue-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 批量签发
+     *
+     * @param requests 请求迭代器（可以是流式解析的迭代器，按需读取）
+     * @param sink     结果回调，在调用线程中按完成顺序逐条调用
+     * @return 成功签发的数量
+     */
+    public int issueBatch(Iterator<LicenseRequest> requests, Consumer<LicenseIssueResult> sink) throws InterruptedException {
+        AtomicInteger succeeded = new AtomicInteger();
+        int submitted = BoundedCompletion.run(executor, maxInFlight, readable(requests, sink), this::issueOne, result -> {
+            if (result.isSuccess()) {
+                succeeded.incrementAndGet();
+            }
+            sink.accept(result);
+        });
+        log.info("批量签发完成，共 {} 条，成功 {} 条", submitted, succeeded.get());
+        return succeeded.get();
+    }
+
+    /**
+     * 请求体格式错误时无法继续定位后续条目：上报一条失败结果后视为读取结束，已提交的请求照常完成
+     */
+    private static Iterator<LicenseRequest> readable(Iterator<LicenseRequest> requests, Consumer<LicenseIssueResult> sink) {
+        return new Iterator<LicenseRequest>() {
+            private int read;
+            private boolean ended;
+            private LicenseRequest next;
+            private boolean fetched;
+
+            @Override
+            public boolean hasNext() {
+                if (fetched) {
+                    return true;
+                }
+                if (ended) {
+                    return false;
+                }
+                // 预读一条，解析失败在这里处理，next 不会再抛出异常
+                try {
+                    if (requests.hasNext()) {
+                        next = requests.next();
+                        fetched = true;
+                        return true;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("批量签发请求解析失败，序号 {}：{}", read, e.getMessage());
+                    sink.accept(LicenseIssueResult.fail(read, "请求解析失败: " + e.getMessage()));
+                }
+                ended = true;
+                return false;
+            }
+
+            @Override
+            public LicenseRequest next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                fetched = false;
+                read++;
+                return next;
+            }
+        };
+    }
+
+    private LicenseIssueResult issueOne(int index, LicenseRequest request) {
+        try {
+            String invalid = checkRequest(request);
+            if (invalid != null) {
+                return LicenseIssueResult.fail(index, invalid);
+            }
+            LicenseIssueResult result = licenseService.issueLicense(request);
+            result.setIndex(index);
+            return result;
+        } catch (Exception e) {
+            log.error("批量签发第 {} 条失败", index, e);
+            return LicenseIssueResult.fail(index, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 批量请求不经过 @Valid，逐条做与 LicenseRequest 注解一致的必填校验
+     */
+    private String checkRequest(LicenseRequest request) {
+        if (request == null) {
+            return "请求内容为空";
+        }
+        if (isBlank(request.getProjectId())) {
+            return "项目 ID 不能为空";
+        }
+        if (isBlank(request.getCustomer())) {
+            return "客户名称不能为空";
+        }
+        if (request.getIssueDate() == null) {
+            return "起始时间不能为空";
+        }
+        if (request.getExpireDate() == null) {
+            return "到期时间不能为空";
+        }
+        List<?> machines = request.getBoundMachines();
+        if (machines == null || machines.isEmpty()) {
+            return "至少绑定一台机器";
+        }
+        if (isBlank(request.getMode())) {
+            return "授权模式不能为空";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.licenseplatform.service;
+
+import org.example.licenseplatform.model.LicenseRecord;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 到期提醒事件：一批即将到期的 License（按过期时间升序），由 {@link LicenseExpiryNotifier} 定时发布
+ * 需要发邮件、推送续费工单等的模块通过 @EventListener 订阅即可
+ */
+public class LicenseExpiringEvent extends ApplicationEvent {
+
+    private final List<LicenseRecord> licenses;
+
+    public LicenseExpiringEvent(Object source, List<LicenseRecord> licenses) {
+        super(source);
+        this.licenses = Collections.unmodifiableList(licenses);
+    }
+
+    public List<LicenseRecord> getLicenses() {
+        return licenses;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.licenseplatform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.config.LicenseConfig;
+import org.example.licenseplatform.model.LicenseRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 到期提醒定时任务：按 license.expiry-notice 配置定期从签发登记簿的过期时间索引中取出
+ * 未来 leadDays 天内到期的 License，分批发布 {@link LicenseExpiringEvent}
+ *
+ * 每个 License（按 licenseId + 过期时间）在进程内只提醒一次；扫描窗口每次都从当前时间开始，
+ * 因此在上次扫描之后才签发、但过期时间已落在窗口内的 License 也会在下一次扫描时提醒。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "license.expiry-notice", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LicenseExpiryNotifier {
+
+    @Autowired
+    private LicenseRegistry licenseRegistry;
+
+    @Autowired
+    private LicenseConfig licenseConfig;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /** 已提醒的 licenseId -> 提醒时的过期时间（过期后清理，续签改变过期时间后会再次提醒） */
+    private final Map<String, Long> notified = new HashMap<>();
+
+    @Scheduled(initialDelayString = "${license.expiry-notice.check-interval-millis:3600000}",
+            fixedDelayString = "${license.expiry-notice.check-interval-millis:3600000}")
+    public void scan() {
+        LicenseConfig.ExpiryNoticeConfig config = licenseConfig.getExpiryNotice();
+        long now = System.currentTimeMillis();
+        long to = now + TimeUnit.DAYS.toMillis(config.getLeadDays());
+
+        // 1. 清理已过期的提醒记录
+        for (Iterator<Long> it = notified.values().iterator(); it.hasNext(); ) {
+            if (it.next() < now) {
+                it.remove();
+            }
+        }
+
+        // 2. 取出窗口内尚未提醒的 License，分批发布事件
+        int batchSize = Math.max(1, config.getBatchSize());
+        List<LicenseRecord> batch = new ArrayList<>(batchSize);
+        int total = 0;
+        for (LicenseRecord record : licenseRegistry.expiringBetween(now, to)) {
+            Long previous = notified.get(record.getLicenseId());
+            if (previous != null && previous.equals(record.getExpireDate())) {
+                continue;
+            }
+            batch.add(record);
+            if (batch.size() == batchSize) {
+                total += publish(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            total += publish(batch);
+        }
+        if (total > 0) {
+            log.info("到期提醒：{} 个 License 将在 {} 天内到期", total, config.getLeadDays());
+        }
+    }
+
+    private int publish(List<LicenseRecord> batch) {
+        eventPublisher.publishEvent(new LicenseExpiringEvent(this, batch));
+        // 发布成功后才标记，监听器抛出异常时下一次扫描会重试这一批
+        for (LicenseRecord record : batch) {
+            notified.put(record.getLicenseId(), record.getExpireDate());
+        }
+        return batch.size();
+    }
+}
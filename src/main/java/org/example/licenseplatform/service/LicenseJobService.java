@@ -0,0 +1,141 @@
+package org.example.licenseplatform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.config.LicenseConfig;
+import org.example.licenseplatform.model.LicenseIssueResult;
+import org.example.licenseplatform.model.LicenseJob;
+import org.example.licenseplatform.model.LicenseRequest;
+import org.example.licenseplatform.util.ExpiringLruCache;
+import org.example.licenseplatform.util.LatencyWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步签发服务：请求提交后立即返回任务 ID，由有界线程池在后台签发
+ *
+ * 等待队列容量为 license.issue.job-queue-capacity，队列已满时直接拒绝（不在请求线程上排队或降级执行），
+ * 由调用方稍后重试。任务状态在内存中保留 job-retention-seconds，可通过任务 ID 查询结果或失败原因。
+ */
+@Slf4j
+@Service
+public class LicenseJobService {
+
+    private static final int LATENCY_WINDOW_SIZE = 1024;
+
+    private final LicenseService licenseService;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final ExpiringLruCache<String, LicenseJob> jobs;
+
+    /** 排队耗时（提交到开始签发） */
+    private final LatencyWindow queueLatency = new LatencyWindow(LATENCY_WINDOW_SIZE);
+
+    /** 总耗时（提交到签发结束） */
+    private final LatencyWindow totalLatency = new LatencyWindow(LATENCY_WINDOW_SIZE);
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Autowired
+    public LicenseJobService(LicenseService licenseService, LicenseConfig licenseConfig) {
+        this.licenseService = licenseService;
+        LicenseConfig.IssueConfig issueConfig = licenseConfig.getIssue();
+        int threads = Math.max(1, issueConfig.getWorkerThreads());
+        this.queueCapacity = Math.max(1, issueConfig.getJobQueueCapacity());
+        this.jobs = new ExpiringLruCache<>(Math.max(queueCapacity + threads, issueConfig.getJobRetentionMaxEntries()),
+                issueConfig.getJobRetentionSeconds(), TimeUnit.SECONDS);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "license-job-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 提交签发任务
+     *
+     * @param request License 请求参数（已通过校验）
+     * @return 任务状态（QUEUED）
+     * @throws RejectedExecutionException 队列已满
+     */
+    public LicenseJob submit(LicenseRequest request) {
+        LicenseJob job = new LicenseJob(UUID.randomUUID().toString(), System.currentTimeMillis());
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+        jobs.put(job.getJobId(), job);
+        submitted.incrementAndGet();
+        return job;
+    }
+
+    /**
+     * 查询任务状态，任务不存在或已超过保留时间时返回 null
+     */
+    public LicenseJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * 队列深度、计数与耗时分位数（毫秒）
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("submitted", submitted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("succeeded", succeeded.get());
+        stats.put("failed", failed.get());
+        stats.put("queueLatencyMillis", queueLatency.snapshot());
+        stats.put("totalLatencyMillis", totalLatency.snapshot());
+        return stats;
+    }
+
+    private void run(LicenseJob job, LicenseRequest request) {
+        long started = System.currentTimeMillis();
+        job.setStartedAt(started);
+        job.setStatus(LicenseJob.Status.RUNNING);
+        queueLatency.record(started - job.getSubmittedAt());
+        try {
+            LicenseIssueResult result = licenseService.issueLicense(request);
+            job.setLicenseId(result.getLicenseId());
+            job.setFilePath(result.getFilePath());
+            job.setStatus(LicenseJob.Status.SUCCEEDED);
+            succeeded.incrementAndGet();
+        } catch (Exception e) {
+            log.error("签发任务 {} 失败，项目：{}，客户：{}", job.getJobId(), request.getProjectId(), request.getCustomer(), e);
+            job.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            job.setStatus(LicenseJob.Status.FAILED);
+            failed.incrementAndGet();
+        } finally {
+            long finished = System.currentTimeMillis();
+            job.setFinishedAt(finished);
+            totalLatency.record(finished - job.getSubmittedAt());
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package org.example.licenseplatform.service;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.config.LicenseConfig;
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.LicenseRecord;
+import org.example.licenseplatform.model.LicenseSearchPage;
+import org.example.licenseplatform.util.JsonUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 签发登记簿：每签发一个 License 就向追加日志（NDJSON，每行一条 LicenseRecord）写入一行，
+ * 并在内存中维护按 licenseId、客户、项目、过期时间的索引，查询无需扫描 .lic 文件
+ *
+ * 记录按写入顺序编号（ordinal），客户 / 项目索引为递增的 ordinal 列表，游标翻页通过二分定位；
+ * 过期时间索引为有序 Map，区间查询为 O(log n + k)。启动时顺序读取日志重建索引，
+ * 日志末尾因崩溃而不完整的一行会被截掉。同一 licenseId 多次登记时以最后一次为准。
+ * 日志无法打开时（如客户端、仅校验的部署没有签发目录）不阻断启动，登记簿停用：查询返回空，
+ * 登记抛出 IOException，签发随之失败，不会产生登记簿之外的 License。
+ */
+@Slf4j
+@Service
+public class LicenseRegistry {
+
+    /** 单页最大条数 */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String ORDINAL_CURSOR = "o";
+    private static final String EXPIRE_CURSOR = "e";
+
+    private final ObjectWriter lineWriter = JsonUtils.getMapper().writer().without(SerializationFeature.INDENT_OUTPUT);
+    private final ObjectReader recordReader = JsonUtils.getMapper().readerFor(LicenseRecord.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** ordinal -> 记录 */
+    private final List<LicenseRecord> records = new ArrayList<>();
+    private final Map<String, Integer> byId = new HashMap<>();
+    private final Map<String, OrdinalList> byCustomer = new HashMap<>();
+    private final Map<String, OrdinalList> byProject = new HashMap<>();
+    private final NavigableMap<Long, OrdinalList> byExpire = new TreeMap<>();
+
+    @Autowired
+    private LicenseConfig licenseConfig;
+
+    private Path logPath;
+
+    /** 追加日志通道，为 null 表示登记簿不可用 */
+    private FileChannel logChannel;
+    private boolean fsync;
+
+    @PostConstruct
+    public void init() {
+        LicenseConfig.RegistryConfig registryConfig = licenseConfig.getRegistry();
+        String configured = registryConfig.getLogPath();
+        logPath = configured != null
+                ? Paths.get(configured)
+                : Paths.get(licenseConfig.getOutputPath() == null ? "." : licenseConfig.getOutputPath(), "license-registry.ndjson");
+        fsync = registryConfig.isFsync();
+
+        // 日志不可用时不阻断启动（客户端部署通常没有签发目录），登记簿停用
+        long start = System.nanoTime();
+        FileChannel channel = null;
+        try {
+            if (logPath.getParent() != null) {
+                Files.createDirectories(logPath.getParent());
+            }
+            channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            logChannel = channel;
+            rebuild();
+            logChannel.position(logChannel.size());
+        } catch (IOException e) {
+            log.warn("签发登记日志无法打开：{}，签发登记与查询功能不可用（{}）", logPath, e.getMessage());
+            logChannel = null;
+            clearIndexes();
+            closeQuietly(channel);
+            return;
+        }
+        log.info("签发登记簿已加载：{}，共 {} 条记录，耗时 {} ms", logPath, byId.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * 登记簿是否可用（日志已成功打开）
+     */
+    public boolean isAvailable() {
+        return logChannel != null;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (logChannel != null) {
+            logChannel.close();
+        }
+    }
+
+    /**
+     * 登记一个已签发的 License：先追加日志，再更新索引
+     *
+     * @param content  已签发的 License 内容
+     * @param filePath .lic 文件路径
+     */
+    public LicenseRecord register(LicenseContent content, String filePath) throws IOException {
+        if (logChannel == null) {
+            throw new IOException("签发登记簿不可用：" + logPath);
+        }
+        LicenseRecord record = LicenseRecord.of(content, filePath);
+        byte[] json = lineWriter.writeValueAsBytes(record);
+        ByteBuffer line = ByteBuffer.allocate(json.length + 1);
+        line.put(json).put((byte) '\n').flip();
+
+        lock.writeLock().lock();
+        try {
+            long start = logChannel.position();
+            try {
+                while (line.hasRemaining()) {
+                    logChannel.write(line);
+                }
+                if (fsync) {
+                    logChannel.force(false);
+                }
+            } catch (IOException e) {
+                // 撤销写了一半的行，避免后续记录接在残行之后
+                try {
+                    logChannel.truncate(start);
+                    logChannel.position(start);
+                } catch (IOException truncateError) {
+                    e.addSuppressed(truncateError);
+                }
+                throw e;
+            }
+            index(record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return record;
+    }
+
+    /**
+     * 按授权编号查询
+     */
+    public LicenseRecord get(String licenseId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = byId.get(licenseId);
+            return ordinal == null ? null : records.get(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 登记的 License 数量（同一 licenseId 只计一次）
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 过期时间落在 [from, to] 区间内的记录，按过期时间升序（有序索引定位起点，O(log n + k)）
+     *
+     * @param from 过期时间下限（含，毫秒时间戳）
+     * @param to   过期时间上限（含，毫秒时间戳）
+     */
+    public List<LicenseRecord> expiringBetween(long from, long to) {
+        List<LicenseRecord> result = new ArrayList<>();
+        if (from > to) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            for (OrdinalList ordinals : byExpire.subMap(from, true, to, true).values()) {
+                for (int i = 0; i < ordinals.size(); i++) {
+                    LicenseRecord record = current(ordinals.get(i));
+                    if (record != null) {
+                        result.add(record);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 条件查询，支持游标翻页
+     * 指定客户或项目时按签发顺序返回；只指定过期时间区间时按过期时间升序返回
+     *
+     * @param customer   客户名称（精确匹配，可空）
+     * @param projectId  项目 ID（精确匹配，可空）
+     * @param expireFrom 过期时间下限（含，可空）
+     * @param expireTo   过期时间上限（含，可空）
+     * @param cursor     上一页返回的 nextCursor（首页为空）
+     * @param limit      每页条数
+     */
+    public LicenseSearchPage search(String customer, String projectId, Long expireFrom, Long expireTo,
+                                    String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long from = expireFrom == null ? Long.MIN_VALUE : expireFrom;
+        long to = expireTo == null ? Long.MAX_VALUE : expireTo;
+
+        lock.readLock().lock();
+        try {
+            if (customer != null || projectId != null) {
+                return searchByOwner(customer, projectId, from, to, cursor, pageSize);
+            }
+            if (expireFrom != null || expireTo != null) {
+                return searchByExpire(from, to, cursor, pageSize);
+            }
+            return searchAll(cursor, pageSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按客户 / 项目查询：选用较短的 ordinal 列表，二分定位游标后顺序过滤
+     */
+    private LicenseSearchPage searchByOwner(String customer, String projectId, long from, long to,
+                                            String cursor, int pageSize) {
+        OrdinalList candidates = null;
+        if (customer != null) {
+            candidates = byCustomer.get(customer);
+        }
+        if (projectId != null) {
+            OrdinalList byProjectList = byProject.get(projectId);
+            if (customer == null || (candidates != null && byProjectList != null && byProjectList.size() < candidates.size())) {
+                candidates = byProjectList;
+            } else if (byProjectList == null) {
+                candidates = null;
+            }
+        }
+        if (candidates == null) {
+            return new LicenseSearchPage(Collections.<LicenseRecord>emptyList(), null);
+        }
+
+        List<LicenseRecord> items = new ArrayList<>(Math.min(pageSize, candidates.size()));
+        int last = -1;
+        for (int i = candidates.firstAfter(parseOrdinalCursor(cursor)); i < candidates.size(); i++) {
+            int ordinal = candidates.get(i);
+            LicenseRecord record = current(ordinal);
+            if (record == null
+                    || (customer != null && !customer.equals(record.getCustomer()))
+                    || (projectId != null && !projectId.equals(record.getProjectId()))
+                    || !inRange(record.getExpireDate(), from, to)) {
+                continue;
+            }
+            items.add(record);
+            last = ordinal;
+            if (items.size() == pageSize) {
+                return new LicenseSearchPage(items, i + 1 < candidates.size() ? ORDINAL_CURSOR + last : null);
+            }
+        }
+        return new LicenseSearchPage(items, null);
+    }
+
+    /**
+     * 按过期时间区间查询：有序索引定位区间起点，按 (过期时间, ordinal) 顺序输出
+     */
+    private LicenseSearchPage searchByExpire(long from, long to, String cursor, int pageSize) {
+        long startExpire = from;
+        int afterOrdinal = -1;
+        if (cursor != null && !cursor.isEmpty()) {
+            long[] parsed = parseExpireCursor(cursor);
+            startExpire = Math.max(from, parsed[0]);
+            afterOrdinal = parsed[0] >= from ? (int) parsed[1] : -1;
+        }
+        if (startExpire > to) {
+            return new LicenseSearchPage(Collections.<LicenseRecord>emptyList(), null);
+        }
+
+        List<LicenseRecord> items = new ArrayList<>(pageSize);
+        for (Map.Entry<Long, OrdinalList> entry : byExpire.subMap(startExpire, true, to, true).entrySet()) {
+            OrdinalList ordinals = entry.getValue();
+            int startIndex = entry.getKey() == startExpire ? ordinals.firstAfter(afterOrdinal) : 0;
+            for (int i = startIndex; i < ordinals.size(); i++) {
+                int ordinal = ordinals.get(i);
+                LicenseRecord record = current(ordinal);
+                if (record == null) {
+                    continue;
+                }
+                items.add(record);
+                if (items.size() == pageSize) {
+                    return new LicenseSearchPage(items, EXPIRE_CURSOR + entry.getKey() + ":" + ordinal);
+                }
+            }
+        }
+        return new LicenseSearchPage(items, null);
+    }
+
+    private LicenseSearchPage searchAll(String cursor, int pageSize) {
+        List<LicenseRecord> items = new ArrayList<>(pageSize);
+        for (int ordinal = parseOrdinalCursor(cursor) + 1; ordinal < records.size(); ordinal++) {
+            LicenseRecord record = current(ordinal);
+            if (record == null) {
+                continue;
+            }
+            items.add(record);
+            if (items.size() == pageSize) {
+                return new LicenseSearchPage(items, ordinal + 1 < records.size() ? ORDINAL_CURSOR + ordinal : null);
+            }
+        }
+        return new LicenseSearchPage(items, null);
+    }
+
+    /**
+     * ordinal 对应的记录；若同一 licenseId 之后又被重新登记，旧记录视为失效返回 null
+     */
+    private LicenseRecord current(int ordinal) {
+        LicenseRecord record = records.get(ordinal);
+        Integer latest = byId.get(record.getLicenseId());
+        return latest != null && latest == ordinal ? record : null;
+    }
+
+    private static boolean inRange(Long expireDate, long from, long to) {
+        if (expireDate == null) {
+            return from == Long.MIN_VALUE && to == Long.MAX_VALUE;
+        }
+        return expireDate >= from && expireDate <= to;
+    }
+
+    private static int parseOrdinalCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return -1;
+        }
+        if (!cursor.startsWith(ORDINAL_CURSOR)) {
+            throw new IllegalArgumentException("无效的游标：" + cursor);
+        }
+        try {
+            return Integer.parseInt(cursor.substring(ORDINAL_CURSOR.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的游标：" + cursor);
+        }
+    }
+
+    private static long[] parseExpireCursor(String cursor) {
+        int separator = cursor.indexOf(':');
+        if (!cursor.startsWith(EXPIRE_CURSOR) || separator < 0) {
+            throw new IllegalArgumentException("无效的游标：" + cursor);
+        }
+        try {
+            return new long[]{
+                    Long.parseLong(cursor.substring(EXPIRE_CURSOR.length(), separator)),
+                    Long.parseLong(cursor.substring(separator + 1))
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的游标：" + cursor);
+        }
+    }
+
+    /**
+     * 把记录加入内存索引（调用方持有写锁）
+     */
+    private void index(LicenseRecord record) {
+        int ordinal = records.size();
+        records.add(record);
+        byId.put(record.getLicenseId(), ordinal);
+        if (record.getCustomer() != null) {
+            byCustomer.computeIfAbsent(record.getCustomer(), k -> new OrdinalList()).add(ordinal);
+        }
+        if (record.getProjectId() != null) {
+            byProject.computeIfAbsent(record.getProjectId(), k -> new OrdinalList()).add(ordinal);
+        }
+        if (record.getExpireDate() != null) {
+            byExpire.computeIfAbsent(record.getExpireDate(), k -> new OrdinalList()).add(ordinal);
+        }
+    }
+
+    private void clearIndexes() {
+        records.clear();
+        byId.clear();
+        byCustomer.clear();
+        byProject.clear();
+        byExpire.clear();
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 顺序读取日志重建索引；末尾不完整的一行（写入时崩溃）会被截掉，格式错误的行跳过
+     */
+    private void rebuild() throws IOException {
+        long validLength = 0;
+        long offset = 0;
+        byte[] line = new byte[1024];
+        int lineLength = 0;
+        InputStream in = new BufferedInputStream(Channels.newInputStream(logChannel), 1 << 16);
+        int b;
+        while ((b = in.read()) != -1) {
+            offset++;
+            if (b != '\n') {
+                if (lineLength == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[lineLength++] = (byte) b;
+                continue;
+            }
+            if (lineLength > 0) {
+                try {
+                    index(recordReader.readValue(line, 0, lineLength));
+                } catch (IOException e) {
+                    log.warn("签发登记日志第 {} 字节处存在格式错误的记录，已跳过：{}", offset - lineLength - 1, e.getMessage());
+                }
+            }
+            lineLength = 0;
+            validLength = offset;
+        }
+        if (validLength < logChannel.size()) {
+            log.warn("签发登记日志末尾存在不完整的记录（{} 字节），已截断", logChannel.size() - validLength);
+            logChannel.truncate(validLength);
+        }
+    }
+
+    /**
+     * 递增的 int 列表（避免装箱），用于保存某个索引值下的全部 ordinal
+     */
+    private static final class OrdinalList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int get(int index) {
+            return values[index];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        /**
+         * 第一个大于 ordinal 的元素下标（列表递增，二分查找）
+         */
+        private int firstAfter(int ordinal) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= ordinal) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,38 +1,44 @@
 package org.example.licenseplatform.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.example.licenseplatform.config.LicenseConfig;
 import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.LicenseIssueResult;
 import org.example.licenseplatform.model.LicenseRequest;
-import org.example.licenseplatform.util.JsonUtils;
-import org.example.licenseplatform.util.KeyStoreUtils;
+import org.example.licenseplatform.util.LicenseFileCodec;
 import org.example.licenseplatform.util.LicenseIdGenerator;
-import org.example.licenseplatform.util.SignatureUtils;
+import org.example.licenseplatform.util.LicenseMetrics;
+import org.example.licenseplatform.util.PayloadFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.security.PrivateKey;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
 
 /**
  * License 服务类：用于根据前端请求生成签名后的 License 文件
  */
+@Slf4j
 @Service
 public class LicenseService {
 
-    private final ObjectMapper objectMapper;
     private final LicenseConfig licenseConfig;
+    private final LicenseSigner licenseSigner;
 
     @Autowired
     private LicenseIdGenerator licenseIdGenerator;
 
     @Autowired
-    public LicenseService(LicenseConfig licenseConfig) {
-        this.objectMapper = JsonUtils.getMapper(); // 使用统一的 JSON 工具配置
+    private LicenseRegistry licenseRegistry;
+
+    @Autowired
+    public LicenseService(LicenseConfig licenseConfig, LicenseSigner licenseSigner) {
         this.licenseConfig = licenseConfig;
+        this.licenseSigner = licenseSigner;
     }
 
     /**
@@ -43,60 +49,87 @@ public class LicenseService {
      */
     public boolean generateLicense(LicenseRequest request) {
         try {
-            // 1. 构建 License 内容（签名前）
-            LicenseContent content = new LicenseContent();
-
-            // 自动生成唯一的 License ID
-            String licenseId = licenseIdGenerator.generate(
-                    request.getProjectId(), request.getCustomer()
-            );
-            content.setLicenseId(licenseId);
-
-            content.setProjectId(request.getProjectId());
-            content.setCustomer(request.getCustomer());
-            content.setIssueDate(request.getIssueDate());
-            content.setExpireDate(request.getExpireDate());
-            content.setFeatures(request.getFeatures());
-
-            // 2. 设置绑定机器列表（支持集群部署）
-            content.setBoundMachines(request.getBoundMachines());
-
-            // 3. 设置部署模式：standalone / cluster
-            content.setMode(request.getMode());
-
-            // 4. 初始签名字段设为空（参与签名的数据中不能包含签名本身）
-            content.setSignature(null);
-
-            // 5. 将 License 内容转为 JSON 字符串（用于签名）
-            String jsonToSign = objectMapper
-                    .writerWithDefaultPrettyPrinter()
-                    .writeValueAsString(content);
-
-            // 6. 加载本地 JKS 私钥
-            PrivateKey privateKey = KeyStoreUtils.loadPrivateKeyFromJKS(
-                    licenseConfig.getPrivateKey().getKeystorePath(),
-                    licenseConfig.getPrivateKey().getAlias(),
-                    licenseConfig.getPrivateKey().getStorePass(),
-                    licenseConfig.getPrivateKey().getKeyPass()
-            );
-
-            // 7. 使用私钥进行签名
-            String signature = SignatureUtils.sign(jsonToSign, privateKey);
-            content.setSignature(signature);
-
-            // 8. 构造 License 文件输出路径
-            String outputPath = licenseConfig.getOutputPath() + licenseId + ".lic";
-            File outputFile = new File(outputPath);
-            Files.createDirectories(Paths.get(outputFile.getParent())); // 确保目录存在
-
-            // 9. 将最终带签名的 JSON 内容写入 .lic 文件
-            String finalJson = objectMapper.writeValueAsString(content);
-            Files.write(outputFile.toPath(), finalJson.getBytes(StandardCharsets.UTF_8));
-
+            issueLicense(request);
             return true;
         } catch (Exception e) {
-            e.printStackTrace(); // 实际使用中应替换为日志记录
+            log.error("License 签发失败，项目：{}，客户：{}", request.getProjectId(), request.getCustomer(), e);
             return false;
         }
     }
+
+    /**
+     * 签发单个 License 并写入 .lic 文件，失败时抛出异常由调用方决定如何上报
+     *
+     * @param request License 请求参数
+     * @return 签发结果（授权编号与文件路径）
+     */
+    public LicenseIssueResult issueLicense(LicenseRequest request) throws Exception {
+        // 1. 构建 License 内容（签名前）
+        LicenseContent content = new LicenseContent();
+
+        // 自动生成唯一的 License ID
+        long stepStart = System.nanoTime();
+        String licenseId = licenseIdGenerator.generate(
+                request.getProjectId(), request.getCustomer()
+        );
+        LicenseMetrics.recordIssueStep("id_allocation", stepStart);
+        content.setLicenseId(licenseId);
+
+        content.setProjectId(request.getProjectId());
+        content.setCustomer(request.getCustomer());
+        content.setIssueDate(request.getIssueDate());
+        content.setExpireDate(request.getExpireDate());
+        content.setFeatures(request.getFeatures());
+
+        // 2. 设置绑定机器列表（支持集群部署）
+        content.setBoundMachines(request.getBoundMachines());
+
+        // 3. 设置部署模式：standalone / cluster
+        content.setMode(request.getMode());
+
+        // 4. 初始签名字段设为空（参与签名的数据中不能包含签名本身）
+        content.setSignature(null);
+
+        // 取得当前签名密钥，kid 与签名算法随内容一起参与签名
+        stepStart = System.nanoTime();
+        LicenseSigner.SigningKey signingKey = licenseSigner.currentKey();
+        LicenseMetrics.recordIssueStep("key_load", stepStart);
+        content.setKid(signingKey.getKeyId());
+        content.setAlg(signingKey.getAlgorithm());
+
+        // 5. 将 License 内容序列化为 payload 字节（JSON 或 Smile），签名直接针对这段字节
+        byte[] payload = LicenseFileCodec.toPayload(content, PayloadFormat.of(licenseConfig.getIssue().getPayloadFormat()));
+
+        // 6. 使用缓存的私钥签名（私钥只加载一次，keystore 变更时自动重新加载）
+        stepStart = System.nanoTime();
+        String signature = Base64.getEncoder().encodeToString(signingKey.sign(payload));
+        LicenseMetrics.recordIssueStep("sign", stepStart);
+        content.setSignature(signature);
+
+        // 7. 构造 License 文件输出路径
+        stepStart = System.nanoTime();
+        String outputPath = licenseConfig.getOutputPath() + licenseId + ".lic";
+        File outputFile = new File(outputPath);
+        Files.createDirectories(Paths.get(outputFile.getParent())); // 确保目录存在
+
+        // 8. 写入 .lic 文件：文件头（算法、kid、分离签名）+ 原样的 payload 字节
+        //    CREATE_NEW：序号重复时签发失败，不覆盖已签发的 License
+        byte[] fileBytes = LicenseFileCodec.encode(payload, signature, signingKey.getAlgorithm(), signingKey.getKeyId());
+        Files.write(outputFile.toPath(), fileBytes, StandardOpenOption.CREATE_NEW);
+        LicenseMetrics.recordIssueStep("file_write", stepStart);
+
+        // 9. 写入签发登记簿：登记簿是已签发 License 的唯一索引，登记失败时删除刚生成的文件并使签发失败
+        try {
+            licenseRegistry.register(content, outputPath);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(outputFile.toPath());
+            } catch (IOException deleteError) {
+                e.addSuppressed(deleteError);
+            }
+            throw new IOException("License " + licenseId + " 写入签发登记簿失败，已撤销签发：" + e.getMessage(), e);
+        }
+
+        return LicenseIssueResult.ok(0, licenseId, outputPath);
+    }
 }
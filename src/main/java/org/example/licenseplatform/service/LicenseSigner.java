@@ -0,0 +1,294 @@
+package org.example.licenseplatform.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.config.LicenseConfig;
+import org.example.licenseplatform.util.KeyStoreUtils;
+import org.example.licenseplatform.util.SignatureScheme;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.Certificate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * License 签名器：私钥只加载一次，并维护一组已 initSign 的 Signature 实例供所有请求线程共享
+ * 签名算法由 keystore 中私钥的类型决定（RSA / Ed25519 / EC P-256），写入 License 的 alg 字段
+ *
+ * keystore 文件的修改时间或校验和发生变化时，后台线程自动加载新私钥并整体替换签名状态；
+ * 替换前后的请求始终持有一个可用的私钥，不会出现签名失败的空窗期。
+ */
+@Slf4j
+@Component
+public class LicenseSigner {
+
+    private final LicenseConfig licenseConfig;
+
+    /** 当前生效的签名状态（私钥 + kid + 文件指纹 + Signature 池），整体替换保证一致性 */
+    private volatile SigningKey state;
+
+    private ScheduledExecutorService reloadExecutor;
+
+    @Autowired
+    public LicenseSigner(LicenseConfig licenseConfig) {
+        this.licenseConfig = licenseConfig;
+    }
+
+    @PostConstruct
+    public void init() {
+        LicenseConfig.PrivateKeyConfig keyConfig = licenseConfig.getPrivateKey();
+        if (keyConfig == null || keyConfig.getKeystorePath() == null) {
+            log.warn("未配置 license.private-key，License 签发功能不可用");
+            return;
+        }
+
+        // 私钥缺失时不阻断启动（客户端部署通常没有私钥），首次签名时再尝试加载
+        try {
+            state = loadState(Paths.get(keyConfig.getKeystorePath()), keyConfig);
+            log.info("License 签名私钥加载完成：{}，签名器池大小：{}", keyConfig.getKeystorePath(), state.poolSize);
+        } catch (Exception e) {
+            log.warn("License 签名私钥预加载失败：{}", e.getMessage());
+        }
+
+        long interval = Math.max(1, keyConfig.getReloadIntervalSeconds());
+        reloadExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "license-signer-reload");
+            t.setDaemon(true);
+            return t;
+        });
+        reloadExecutor.scheduleWithFixedDelay(this::reloadIfChanged, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 获取当前生效的签名密钥
+     * 需要把 kid 写入待签名内容时，先取得 SigningKey 再用它签名，保证 kid 与签名使用的私钥一致
+     *
+     * @return 当前签名密钥
+     */
+    public SigningKey currentKey() throws Exception {
+        SigningKey current = state;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (state == null) {
+                LicenseConfig.PrivateKeyConfig keyConfig = licenseConfig.getPrivateKey();
+                if (keyConfig == null || keyConfig.getKeystorePath() == null) {
+                    throw new IllegalStateException("未配置 license.private-key，无法签发 License");
+                }
+                state = loadState(Paths.get(keyConfig.getKeystorePath()), keyConfig);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * 使用当前私钥对数据签名
+     *
+     * @param data 待签名内容（通常为 JSON 字符串）
+     * @return Base64 编码的签名字符串
+     */
+    public String sign(String data) throws Exception {
+        return currentKey().sign(data);
+    }
+
+    /**
+     * 使用当前私钥对原始字节签名
+     *
+     * @param data 待签名字节
+     * @return 签名字节
+     */
+    public byte[] sign(byte[] data) throws Exception {
+        return currentKey().sign(data);
+    }
+
+    /**
+     * 定时检测 keystore 是否变化：先比较修改时间和大小，有变化再比较校验和，校验和不同才重新加载私钥
+     * 加载失败时保留旧私钥继续签名
+     */
+    private void reloadIfChanged() {
+        LicenseConfig.PrivateKeyConfig keyConfig = licenseConfig.getPrivateKey();
+        Path path = Paths.get(keyConfig.getKeystorePath());
+        try {
+            if (!Files.exists(path)) {
+                return;
+            }
+            SigningKey current = state;
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            long size = Files.size(path);
+            if (current != null && current.lastModified == lastModified && current.size == size) {
+                return;
+            }
+
+            byte[] bytes = Files.readAllBytes(path);
+            byte[] checksum = checksum(bytes);
+            if (current != null && Arrays.equals(current.checksum, checksum)) {
+                // 内容未变（例如仅 touch），只刷新文件时间戳
+                state = current.withStamp(lastModified, bytes.length);
+                return;
+            }
+
+            long start = System.nanoTime();
+            state = createState(bytes, checksum, lastModified, keyConfig);
+            log.info("检测到 keystore 变更，已重新加载签名私钥：{}，耗时 {} ms",
+                    path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.error("重新加载签名私钥失败，继续使用旧私钥：{}", e.getMessage(), e);
+        }
+    }
+
+    private SigningKey loadState(Path path, LicenseConfig.PrivateKeyConfig keyConfig) throws Exception {
+        byte[] bytes = Files.readAllBytes(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        return createState(bytes, checksum(bytes), lastModified, keyConfig);
+    }
+
+    private SigningKey createState(byte[] bytes, byte[] checksum, long lastModified,
+                                   LicenseConfig.PrivateKeyConfig keyConfig) throws Exception {
+        KeyStore keyStore = KeyStoreUtils.loadKeyStore(new ByteArrayInputStream(bytes), keyConfig.getStorePass());
+        PrivateKey privateKey = (PrivateKey) keyStore.getKey(keyConfig.getAlias(), keyConfig.getKeyPass().toCharArray());
+        if (privateKey == null) {
+            throw new IllegalStateException("keystore 中不存在私钥条目：" + keyConfig.getAlias());
+        }
+
+        // kid 取自同一别名下证书的公钥，与客户端公钥环中的 kid 一致
+        Certificate certificate = keyStore.getCertificate(keyConfig.getAlias());
+        String keyId = certificate != null ? KeyStoreUtils.keyId(certificate.getPublicKey()) : null;
+
+        SigningKey newState = new SigningKey(privateKey, keyId, checksum, lastModified, bytes.length,
+                Math.max(1, keyConfig.getSignerPoolSize()));
+        newState.prefill();
+        return newState;
+    }
+
+    private static byte[] checksum(byte[] bytes) throws GeneralSecurityException {
+        return MessageDigest.getInstance("SHA-256").digest(bytes);
+    }
+
+    /**
+     * 一次私钥加载对应的不可变签名状态，附带一个 Signature 池
+     */
+    public static final class SigningKey {
+
+        private final PrivateKey privateKey;
+        private final SignatureScheme scheme;
+        private final String keyId;
+        private final byte[] checksum;
+        private final long lastModified;
+        private final long size;
+        private final int poolSize;
+        private final BlockingQueue<Signature> pool;
+
+        private SigningKey(PrivateKey privateKey, String keyId, byte[] checksum, long lastModified, long size,
+                           int poolSize) {
+            this(privateKey, keyId, checksum, lastModified, size, poolSize, new ArrayBlockingQueue<>(poolSize));
+        }
+
+        private SigningKey(PrivateKey privateKey, String keyId, byte[] checksum, long lastModified, long size,
+                           int poolSize, BlockingQueue<Signature> pool) {
+            this.privateKey = privateKey;
+            this.scheme = SignatureScheme.forKey(privateKey);
+            this.keyId = keyId;
+            this.checksum = checksum;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.poolSize = poolSize;
+            this.pool = pool;
+        }
+
+        private SigningKey withStamp(long lastModified, long size) {
+            return new SigningKey(privateKey, keyId, checksum, lastModified, size, poolSize, pool);
+        }
+
+        /**
+         * 签名算法（由私钥类型决定：RSA / Ed25519 / EC）
+         */
+        public String getAlgorithm() {
+            return scheme.getAlgorithm();
+        }
+
+        /**
+         * 私钥对应证书公钥的 kid（keystore 中无证书时为 null）
+         */
+        public String getKeyId() {
+            return keyId;
+        }
+
+        /**
+         * 使用该私钥对数据签名
+         *
+         * @param data 待签名内容
+         * @return Base64 编码的签名字符串
+         */
+        public String sign(String data) throws Exception {
+            return Base64.getEncoder().encodeToString(sign(data.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        /**
+         * 使用该私钥对原始字节签名
+         *
+         * @param data 待签名字节
+         * @return 签名字节
+         */
+        public byte[] sign(byte[] data) throws Exception {
+            Signature signature = borrow();
+            try {
+                signature.update(data);
+                return signature.sign(); // sign() 完成后 Signature 自动回到 initSign 之后的状态，可直接复用
+            } catch (Exception e) {
+                // 出错的实例状态不可信，直接丢弃，不归还到池中
+                signature = null;
+                throw e;
+            } finally {
+                if (signature != null) {
+                    release(signature);
+                }
+            }
+        }
+
+        private void prefill() throws GeneralSecurityException {
+            for (int i = 0; i < poolSize; i++) {
+                pool.offer(newSignature());
+            }
+        }
+
+        /** 池中无空闲实例时临时创建一个，不阻塞请求线程 */
+        private Signature borrow() throws GeneralSecurityException {
+            Signature signature = pool.poll();
+            return signature != null ? signature : newSignature();
+        }
+
+        /** 归还实例；池已满时直接丢弃，池大小保持上限 */
+        private void release(Signature signature) {
+            pool.offer(signature);
+        }
+
+        private Signature newSignature() throws GeneralSecurityException {
+            return scheme.newSigner(privateKey);
+        }
+    }
+}
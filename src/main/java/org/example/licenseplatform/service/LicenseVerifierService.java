@@ -1,58 +1,93 @@
 package org.example.licenseplatform.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.client.BoundMachineIndex;
 import org.example.licenseplatform.client.LicenseLoadException;
+import org.example.licenseplatform.client.PublicKeyRing;
 import org.example.licenseplatform.common.Result;
 import org.example.licenseplatform.config.LicenseConfig;
+import org.example.licenseplatform.model.LicenseAuditResult;
 import org.example.licenseplatform.model.LicenseContent;
 import org.example.licenseplatform.model.MachineInfo;
+import org.example.licenseplatform.model.StreamedLicense;
 import org.example.licenseplatform.util.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.PrivateKey;
-import java.security.PublicKey;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class LicenseVerifierService {
 
-    private final ObjectMapper objectMapper = JsonUtils.getMapper();
-
     @Autowired
     private LicenseConfig licenseConfig;
 
+    /** 公钥环：启动时解析所有配置的证书，验签时按 kid 取公钥 */
+    private PublicKeyRing keyRing;
+
+    /**
+     * 校验结果缓存：文件标识（路径 + 大小 + 修改时间 + 内容摘要）-> 签名结论与授权机器索引
+     * 硬件结论与当前指纹快照、min-matched-components 相关，不缓存，每次命中都用索引重新比对
+     */
+    private ExpiringLruCache<String, VerifiedLicense> verifyCache;
+
+    @PostConstruct
+    public void init() {
+        LicenseConfig.ClientConfig client = licenseConfig.getClient();
+        keyRing = client != null
+                ? PublicKeyRing.load(client.getPublicKeyPath(), client.getPublicKeyDir())
+                : PublicKeyRing.load(null, null);
+
+        LicenseConfig.VerifyConfig verifyConfig = licenseConfig.getVerify();
+        verifyCache = new ExpiringLruCache<>(verifyConfig.getCacheMaxEntries(),
+                verifyConfig.getCacheTtlSeconds(), TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        keyRing.close();
+    }
+
     public Result<?> verify(String licensePath, String publicKeyPath, String timeRecordPath) {
         try {
             log.info("校验 License 文件: {}", licensePath);
 
-            // 1. 加载 License 文件并反序列化
-            LicenseContent license = loadLicense(licensePath);
-
-            // 2. 验签
-            Result<?> signatureResult = verifySignature(license, publicKeyPath);
-            if (!signatureResult.isSuccess()) return signatureResult;
+            // 1~2. 加载、解码并验签；同一文件内容的签名结论与授权机器索引直接取自缓存
+            long stageStart = System.nanoTime();
+            VerifiedLicense verified = loadVerified(licensePath, publicKeyPath);
+            if (!passed("signature", stageStart, verified.signatureFailure)) return verified.signatureFailure;
+            LicenseContent license = verified.license;
 
-            // 3. 校验生效时间 & 过期时间
+            // 3. 校验生效时间 & 过期时间（与当前时间相关，每次都重新计算）
+            stageStart = System.nanoTime();
             Result<?> timeResult = verifyTime(license);
-            if (!timeResult.isSuccess()) return timeResult;
+            if (!passed("time", stageStart, timeResult)) return timeResult;
 
-            // 4. 校验硬件指纹
-            Result<?> machineResult = verifyMachineInfo(license);
-            if (!machineResult.isSuccess()) return machineResult;
+            // 4. 校验硬件指纹：用缓存条目中的授权机器索引比对当前指纹快照
+            stageStart = System.nanoTime();
+            Result<?> machineResult = verifyMachineInfo(verified);
+            if (!passed("machine", stageStart, machineResult)) return machineResult;
 
             // 5. 校验首次使用时间
+            stageStart = System.nanoTime();
             Result<?> firstUsedResult = verifyFirstUsedAt(license);
-            if (!firstUsedResult.isSuccess()) return firstUsedResult;
+            if (!passed("first_used", stageStart, firstUsedResult)) return firstUsedResult;
 
             // 6. 检查系统时间是否回拨
+            stageStart = System.nanoTime();
             Result<?> rollbackResult = verifyClockRollback(timeRecordPath);
-            if (!rollbackResult.isSuccess()) return rollbackResult;
+            if (!passed("rollback", stageStart, rollbackResult)) return rollbackResult;
 
             return Result.ok("License 校验通过");
 
@@ -65,31 +100,122 @@ public class LicenseVerifierService {
         }
     }
 
-    // 读取并反序列化 License
-    private LicenseContent loadLicense(String licensePath) throws Exception {
-        byte[] bytes = Files.readAllBytes(Paths.get(licensePath));
-        String json = new String(bytes, StandardCharsets.UTF_8);
-        return objectMapper.readValue(json, LicenseContent.class);
+    // 记录阶段耗时，失败时累加该阶段的失败计数；result 为 null 表示通过
+    private static boolean passed(String stage, long startNanos, Result<?> result) {
+        LicenseMetrics.recordStage(stage, startNanos);
+        if (result == null || result.isSuccess()) {
+            return true;
+        }
+        LicenseMetrics.stageFailed(stage, result.getCode());
+        return false;
+    }
+
+    /**
+     * 审计校验：只校验与运行机器无关的部分（文件格式、签名、有效期），供批量校验使用
+     * 不使用校验结果缓存、不写时间回拨记录；公钥取自共享的公钥环，每个证书只解析一次
+     *
+     * @param licensePath   License 文件路径
+     * @param publicKeyPath License 未声明 kid 时使用的证书路径
+     */
+    public LicenseAuditResult audit(Path licensePath, String publicKeyPath) {
+        String path = licensePath.toString();
+        try (LicenseStreamReader reader = LicenseStreamReader.open(licensePath)) {
+            String kid = reader.getKid() != null ? reader.getKid() : keyRing.register(Paths.get(publicKeyPath));
+            if (!keyRing.contains(kid)) {
+                return LicenseAuditResult.of(path, 4009, "未找到签名公钥，kid=" + kid, null);
+            }
+            // 审计不关心运行机器，绑定机器只计数
+            StreamedLicense loaded = reader.read(keyRing.get(kid), machine -> false);
+            LicenseContent license = loaded.getContent();
+            if (!loaded.isSignatureValid()) {
+                return LicenseAuditResult.of(path, 4002, "签名验证失败，License 文件可能被篡改", license);
+            }
+            if (loaded.getMachineCount() == 0) {
+                return LicenseAuditResult.of(path, 4005, "License 中未配置绑定机器信息", license);
+            }
+            if (license.getIssueDate() == null || license.getExpireDate() == null) {
+                return LicenseAuditResult.of(path, 5002, "License 缺少生效或过期时间", license);
+            }
+            // 与 verifyTime 的判断一致，批量场景下不逐个记录错误日志
+            long nowMillis = System.currentTimeMillis();
+            if (nowMillis < license.getIssueDate()) {
+                return LicenseAuditResult.of(path, 4003, "License 尚未生效", license);
+            }
+            if (nowMillis > license.getExpireDate()) {
+                return LicenseAuditResult.of(path, 4004, "License 已过期", license);
+            }
+            return LicenseAuditResult.of(path, 200, "校验通过", license);
+        } catch (Exception e) {
+            return LicenseAuditResult.of(path, 5002, "License 校验失败: " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * 校验结果缓存统计（命中、未命中、淘汰次数与当前大小），用于评估缓存容量
+     */
+    public Map<String, Object> getCacheStats() {
+        long hits = verifyCache.getHits();
+        long misses = verifyCache.getMisses();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", verifyCache.getEvictions());
+        stats.put("size", verifyCache.size());
+        stats.put("maxEntries", verifyCache.getMaxEntries());
+        stats.put("hitRate", hits + misses == 0 ? 0d : (double) hits / (hits + misses));
+        return stats;
     }
 
-    // 验证 License 签名
-    private Result<?> verifySignature(LicenseContent license, String publicKeyPath) throws Exception {
-        String signature = license.getSignature();
-        if (signature == null || signature.isEmpty()) {
-            log.error("验证签名失败，签名字段为空");
-            return Result.fail(4001, "签名字段为空，非法 License");
+    // 按文件标识查缓存；未命中时流式加载，边读边验签、收集绑定机器建立索引，结论写入缓存
+    private VerifiedLicense loadVerified(String licensePath, String publicKeyPath) throws Exception {
+        Path path = Paths.get(licensePath);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        long size = Files.size(path);
+        String cacheKey = path.toAbsolutePath().normalize() + "|" + publicKeyPath + "|" + size + "|"
+                + lastModified + "|" + Base64.getEncoder().encodeToString(digest(path));
+
+        VerifiedLicense cached = verifyCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
         }
 
-        license.setSignature(null);
-        String unsignedJson = objectMapper.writeValueAsString(license);
+        VerifiedLicense verified;
+        try (LicenseStreamReader reader = LicenseStreamReader.open(path)) {
+            // 请求指定的证书同样注册到公钥环（同一路径只解析一次），License 无 kid 时用它验签
+            String kid = reader.getKid() != null ? reader.getKid() : keyRing.register(Paths.get(publicKeyPath));
+            if (!keyRing.contains(kid)) {
+                log.error("验证签名失败，未找到签名公钥 kid={}", kid);
+                return new VerifiedLicense(null, Result.fail(4009, "未找到签名公钥，kid=" + kid), 0, null);
+            }
+
+            BoundMachineIndex.Builder machines = BoundMachineIndex.builder();
+            StreamedLicense loaded = reader.read(keyRing.get(kid), machines);
+
+            if (!loaded.isSignatureValid()) {
+                log.error("验证签名失败，License 文件可能被篡改");
+                verified = new VerifiedLicense(loaded.getContent(), Result.fail(4002, "签名验证失败，License 文件可能被篡改"), 0, null);
+            } else {
+                // standalone 模式只索引第一台机器，cluster 模式索引全部机器
+                boolean standalone = "standalone".equalsIgnoreCase(loaded.getContent().getMode());
+                verified = new VerifiedLicense(loaded.getContent(), null, loaded.getMachineCount(),
+                        machines.build(standalone));
+            }
+        }
+        verifyCache.put(cacheKey, verified);
+        return verified;
+    }
 
-        PublicKey publicKey = KeyStoreUtils.loadPublicKeyFromCer(publicKeyPath);
-        boolean valid = SignatureUtils.verify(unsignedJson, signature, publicKey);
-        if (!valid) {
-            log.error("验证签名失败，License 文件可能被篡改");
-            return Result.fail(4002, "签名验证失败，License 文件可能被篡改");
+    // 以 64KB 缓冲区流式计算文件的 SHA-256，用作缓存键，不把文件整体读入内存
+    private static byte[] digest(Path path) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(path)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
         }
-        return Result.ok("签名验证通过");
+        return digest.digest();
     }
 
     // 验证生效时间与过期时间
@@ -123,28 +249,21 @@ public class LicenseVerifierService {
     }
 
 
-    // 校验当前机器是否在授权机器列表中
-    private Result<?> verifyMachineInfo(LicenseContent license) {
-        if (license.getBoundMachines() == null || license.getBoundMachines().isEmpty()) {
+    // 校验当前机器是否在授权机器列表中：当前指纹快照在授权机器索引中做 O(1) 查找
+    private Result<?> verifyMachineInfo(VerifiedLicense verified) {
+        if (verified.machineCount == 0) {
             log.error("License 中未配置绑定机器信息");
             return Result.fail(4005, "License 中未配置绑定机器信息");
         }
 
-        // 获取当前机器的硬件指纹
-        String currentMac = MachineInfoUtils.getFirstMacAddress();
-        String currentCpu = MachineInfoUtils.getCPUSerial();
-        String currentBoard = MachineInfoUtils.getMainBoardSerial();
-
-        String mode = license.getMode();
+        // 获取当前机器的硬件指纹（共享快照，不会每次都启动 dmidecode）
+        // standalone 模式的索引只包含第一台机器，cluster 模式任意一台匹配即可
+        MachineInfo current = MachineInfoUtils.getMachineInfo();
+        boolean match = verified.machines.matches(BoundMachineIndex.MachineKey.of(current),
+                licenseConfig.getVerify().getMinMatchedComponents());
 
         // 单机模式：只比对第一台机器
-        if ("standalone".equalsIgnoreCase(mode)) {
-            MachineInfo only = license.getBoundMachines().get(0);
-            boolean match =
-                    safeEquals(only.getMacAddress(), currentMac) &&
-                            safeEquals(only.getCpuSerial(), currentCpu) &&
-                            safeEquals(only.getMainBoardSerial(), currentBoard);
-
+        if ("standalone".equalsIgnoreCase(verified.license.getMode())) {
             if (!match) {
                 log.error("当前机器与授权机器不一致，License 校验失败（standalone 模式）");
                 return Result.fail(4005, "硬件指纹不一致，当前机器非授权机器（standalone 模式）");
@@ -153,12 +272,7 @@ public class LicenseVerifierService {
             return Result.ok("机器指纹验证通过（standalone 模式）");
         }
 
-        // 默认模式：cluster，遍历任意一台匹配即可
-        boolean match = license.getBoundMachines().stream().anyMatch(bound ->
-                safeEquals(bound.getMacAddress(), currentMac) &&
-                        safeEquals(bound.getCpuSerial(), currentCpu) &&
-                        safeEquals(bound.getMainBoardSerial(), currentBoard)
-        );
+        // 默认模式：cluster，任意一台匹配即可
 
         if (!match) {
             log.error("当前机器不在授权列表中，License 校验失败（cluster 模式）");
@@ -169,47 +283,36 @@ public class LicenseVerifierService {
     }
 
 
-    // 检测时间回拨并写入记录
+    // 检测时间回拨：与内存中的最后可信时间比较，记录文件由 TimeRollbackJournal 在后台合并写入
     private Result<?> verifyClockRollback(String timeRecordPath) {
         try {
-            long nowMillis = System.currentTimeMillis();
-            Path recordPath = Paths.get(timeRecordPath);
-
-            if (Files.exists(recordPath)) {
-                String content = new String(Files.readAllBytes(recordPath), StandardCharsets.UTF_8).trim();
-                String[] parts = content.split(":");
-
-                if (parts.length != 2) {
-                    log.error("时间记录格式非法，可能被篡改");
-                    return Result.fail(4006, "时间记录格式非法，可能被篡改");
-                }
-
-                String timestamp = parts[0];
-                String hmacSignature = parts[1];
-
-                String timeSecret = licenseConfig.getTimeSecret(); // 从配置中读取
-                if (!HmacUtils.verify(timestamp, hmacSignature, timeSecret)) {
-                    return Result.fail(4006, "检测到时间记录被篡改");
-                }
-
-                long lastStart = Long.parseLong(timestamp);
-                if (nowMillis < lastStart) {
-                    log.error("检测到系统时间回拨，License 校验失败");
-                    return Result.fail(4006, "检测到系统时间回拨，License 校验失败");
-                }
-            }
-
-            // 写入新的记录
-            String newRecord = nowMillis + ":" + HmacUtils.sign(String.valueOf(nowMillis), licenseConfig.getTimeSecret());
-            Files.write(recordPath, newRecord.getBytes(StandardCharsets.UTF_8));
+            TimeRollbackJournal.of(timeRecordPath, licenseConfig.getTimeSecret())
+                    .checkAndAdvance(System.currentTimeMillis());
             return Result.ok("时间回拨检测通过");
+        } catch (TimeRollbackException e) {
+            log.error(e.getMessage());
+            return Result.fail(4006, e.getMessage());
         } catch (Exception e) {
             log.error("时间回拨校验失败", e);
             return Result.fail(5003, "时间回拨校验失败: " + e.getMessage());
         }
     }
 
-    private boolean safeEquals(String a, String b) {
-        return (a == null && b == null) || (a != null && a.equals(b));
+    /**
+     * 缓存条目：只与文件内容相关的校验结论（签名结论、授权机器索引），签名失败同样缓存
+     */
+    private static final class VerifiedLicense {
+        private final LicenseContent license;
+        private final Result<?> signatureFailure;
+        private final int machineCount;
+        private final BoundMachineIndex machines;
+
+        private VerifiedLicense(LicenseContent license, Result<?> signatureFailure, int machineCount,
+                                BoundMachineIndex machines) {
+            this.license = license;
+            this.signatureFailure = signatureFailure;
+            this.machineCount = machineCount;
+            this.machines = machines;
+        }
     }
 }
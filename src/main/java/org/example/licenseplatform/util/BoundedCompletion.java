@@ -0,0 +1,100 @@
+package org.example.licenseplatform.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * 有界并行执行：按需从迭代器读取输入提交到线程池，按完成顺序在调用线程中逐条回调结果
+ *
+ * 同时在途的任务数不超过 maxInFlight，达到上限后先取回一个已完成的结果再继续读取输入，
+ * 因此输入无论多长，内存中只保留有限个待处理任务与结果。
+ * 调用线程被中断，或读取输入、回调结果时抛出异常（如客户端断开）时，取消全部在途任务后原样抛出。
+ */
+@Slf4j
+public final class BoundedCompletion {
+
+    private BoundedCompletion() {
+    }
+
+    /**
+     * 单个任务，在线程池中执行
+     */
+    @FunctionalInterface
+    public interface Task<T, R> {
+
+        /**
+         * @param index 输入序号，从 0 开始
+         * @param input 输入
+         */
+        R run(int index, T input) throws Exception;
+    }
+
+    /**
+     * 执行全部输入
+     *
+     * @param executor    线程池
+     * @param maxInFlight 同时在途的任务上限
+     * @param inputs      输入迭代器（可以是流式解析的迭代器，按需读取）
+     * @param task        任务，应自行捕获异常并转换为结果；抛出的异常只记录日志，不回调
+     * @param sink        结果回调，在调用线程中按完成顺序逐条调用
+     * @return 提交的任务数
+     */
+    public static <T, R> int run(Executor executor, int maxInFlight, Iterator<T> inputs,
+                                 Task<? super T, ? extends R> task, Consumer<? super R> sink) throws InterruptedException {
+        CompletionService<R> completion = new ExecutorCompletionService<>(executor);
+        Set<Future<R>> inFlight = new HashSet<>();
+        int submitted = 0;
+        boolean completed = false;
+
+        try {
+            while (inputs.hasNext()) {
+                T input = inputs.next();
+                if (inFlight.size() >= Math.max(1, maxInFlight)) {
+                    emit(completion.take(), inFlight, sink);
+                }
+
+                final int index = submitted++;
+                inFlight.add(completion.submit(() -> task.run(index, input)));
+
+                // 顺带把已经完成的结果推送出去，不等待
+                Future<R> done;
+                while ((done = completion.poll()) != null) {
+                    emit(done, inFlight, sink);
+                }
+            }
+
+            while (!inFlight.isEmpty()) {
+                emit(completion.take(), inFlight, sink);
+            }
+            completed = true;
+            return submitted;
+        } finally {
+            if (!completed) {
+                for (Future<R> future : inFlight) {
+                    future.cancel(true);
+                }
+                log.warn("并行任务提前结束，已取消 {} 个在途任务", inFlight.size());
+            }
+        }
+    }
+
+    private static <R> void emit(Future<R> future, Set<Future<R>> inFlight, Consumer<? super R> sink)
+            throws InterruptedException {
+        inFlight.remove(future);
+        try {
+            sink.accept(future.get());
+        } catch (ExecutionException e) {
+            // 任务应自行捕获异常，此处仅作兜底
+            log.error("并行任务异常", e.getCause());
+        }
+    }
+}
@@ -1,22 +1,202 @@
 package org.example.licenseplatform.util;
 
+import lombok.extern.slf4j.Slf4j;
+
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
+/**
+ * 外部命令执行工具：异步执行、带超时、并发读取 stdout / stderr，并限制同时运行的子进程数
+ *
+ * 命令不经过 shell 直接启动，输出行在 Java 中过滤（代替管道 grep），
+ * 这样超时时强制结束的就是唯一的子进程，不会残留孙进程占住输出管道。
+ */
+@Slf4j
 public class CommandExecutor {
 
-    public static String exec(String command) {
-        StringBuilder result = new StringBuilder();
+    /** 默认命令超时时间 */
+    private static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    /** 同时运行的子进程上限 */
+    private static final int MAX_CONCURRENT_PROCESSES = 4;
+
+    /** 子进程退出后等待输出读取完成的时间 */
+    private static final long DRAIN_TIMEOUT_MILLIS = 1000;
+
+    private static final Semaphore PROCESS_PERMITS = new Semaphore(MAX_CONCURRENT_PROCESSES);
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "command-executor-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    /**
+     * 同步执行命令（默认超时），失败或超时返回空字符串
+     *
+     * @param lineFilter 保留的输出行（按原始行判断，相当于 grep），为 null 时保留全部
+     * @param command    命令及参数
+     * @return 标准输出中保留的行（每行去除首尾空白后拼接）
+     */
+    public static String exec(Predicate<String> lineFilter, String... command) {
         try {
-            Process proc = Runtime.getRuntime().exec(new String[]{"bash", "-c", command});
-            BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getInputStream()));
+            return execAsync(lineFilter, command).join();
+        } catch (CompletionException e) {
+            log.warn("命令执行失败：{}，{}", String.join(" ", command),
+                    e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * 异步执行命令（默认超时）
+     */
+    public static CompletableFuture<String> execAsync(Predicate<String> lineFilter, String... command) {
+        return execAsync(Arrays.asList(command), lineFilter, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 异步执行命令：超时后强制结束子进程，Future 以 TimeoutException 异常完成
+     *
+     * @param command    命令及参数（不经过 shell）
+     * @param lineFilter 保留的输出行，为 null 时保留全部
+     * @param timeout    超时时间（包含等待子进程许可的时间）
+     * @param unit       时间单位
+     * @return 标准输出中保留的行（每行去除首尾空白后拼接）
+     */
+    public static CompletableFuture<String> execAsync(List<String> command, Predicate<String> lineFilter,
+                                                      long timeout, TimeUnit unit) {
+        return CompletableFuture.supplyAsync(() -> run(command, lineFilter, unit.toNanos(timeout)), EXECUTOR);
+    }
+
+    /**
+     * 供同包工具类并行执行其他探测任务
+     */
+    static Executor executor() {
+        return EXECUTOR;
+    }
+
+    private static String run(List<String> command, Predicate<String> lineFilter, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        String display = String.join(" ", command);
+        try {
+            if (!PROCESS_PERMITS.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new CompletionException(new TimeoutException("等待执行许可超时：" + display));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+
+        Process proc = null;
+        Future<String> stdout = null;
+        Future<String> stderr = null;
+        try {
+            proc = new ProcessBuilder(command).start();
+            proc.getOutputStream().close();
+
+            // stdout / stderr 同时读取，避免任一管道写满导致子进程阻塞
+            Process started = proc;
+            stdout = EXECUTOR.submit(() -> readLines(started.getInputStream(), lineFilter));
+            stderr = EXECUTOR.submit(() -> readLines(started.getErrorStream(), null));
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !proc.waitFor(remaining, TimeUnit.NANOSECONDS)) {
+                throw new CompletionException(new TimeoutException("命令执行超时：" + display));
+            }
+
+            String output = stdout.get(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            String error = stderr.get(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (proc.exitValue() != 0 && !error.isEmpty()) {
+                log.debug("命令退出码 {}：{}，stderr：{}", proc.exitValue(), display, error);
+            }
+            return output;
+        } catch (CompletionException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            if (proc != null) {
+                terminate(proc, stdout, stderr);
+            }
+            // 子进程与读取线程都结束后才归还许可，保证同时占用的进程与线程数不超过上限
+            PROCESS_PERMITS.release();
+        }
+    }
+
+    /**
+     * 结束子进程并回收读取任务：超时或异常时强制结束子进程、关闭管道，等待读取任务退出，仍未退出则取消
+     */
+    private static void terminate(Process proc, Future<String> stdout, Future<String> stderr) {
+        if (proc.isAlive()) {
+            proc.destroyForcibly();
+            closeQuietly(proc.getInputStream());
+            closeQuietly(proc.getErrorStream());
+            try {
+                proc.waitFor(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        awaitOrCancel(stdout);
+        awaitOrCancel(stderr);
+    }
+
+    private static void awaitOrCancel(Future<String> reader) {
+        if (reader == null || reader.isDone()) {
+            return;
+        }
+        try {
+            reader.get(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            reader.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            reader.cancel(true);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static String readLines(InputStream in, Predicate<String> lineFilter) throws IOException {
+        StringBuilder result = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                result.append(line.trim());
+                if (lineFilter == null || lineFilter.test(line)) {
+                    result.append(line.trim());
+                }
             }
-            proc.waitFor();
-        } catch (Exception e) {
-            e.printStackTrace();
         }
         return result.toString();
     }
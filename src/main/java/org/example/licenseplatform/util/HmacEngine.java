@@ -0,0 +1,115 @@
+package org.example.licenseplatform.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * HMAC 引擎：每个密钥只构建一次 SecretKeySpec，每个线程持有一个已初始化的 Mac 实例重复使用
+ *
+ * 校验时在原始字节上用 MessageDigest.isEqual 做常量时间比较，避免按字符串比较泄露匹配长度。
+ * 高频场景优先使用字节数组接口，省去 String 与 Base64 之间的来回转换。
+ */
+public final class HmacEngine {
+
+    private static final String HMAC_ALGO = "HmacSHA256";
+
+    /** 按密钥缓存的引擎（密钥来自配置，数量很少） */
+    private static final ConcurrentMap<String, HmacEngine> ENGINES = new ConcurrentHashMap<>();
+
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Mac> macs;
+
+    private HmacEngine(byte[] secret) {
+        this.key = new SecretKeySpec(secret, HMAC_ALGO);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * 获取密钥对应的引擎（同一密钥始终返回同一个实例）
+     *
+     * @param secret 秘钥（UTF-8 编码）
+     */
+    public static HmacEngine forSecret(String secret) {
+        HmacEngine engine = ENGINES.get(secret);
+        if (engine != null) {
+            return engine;
+        }
+        return ENGINES.computeIfAbsent(secret, s -> new HmacEngine(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 使用原始密钥字节创建引擎（不缓存）
+     */
+    public static HmacEngine of(byte[] secret) {
+        return new HmacEngine(secret.clone());
+    }
+
+    /**
+     * 计算 HMAC
+     *
+     * @param data 原始数据
+     * @return HMAC 原始字节
+     */
+    public byte[] sign(byte[] data) {
+        return sign(data, 0, data.length);
+    }
+
+    /**
+     * 计算数据片段的 HMAC
+     */
+    public byte[] sign(byte[] data, int offset, int length) {
+        Mac mac = macs.get();
+        mac.update(data, offset, length);
+        return mac.doFinal();
+    }
+
+    /**
+     * 常量时间校验 HMAC
+     *
+     * @param data      原始数据
+     * @param signature 待校验的 HMAC 原始字节
+     */
+    public boolean verify(byte[] data, byte[] signature) {
+        return signature != null && MessageDigest.isEqual(sign(data), signature);
+    }
+
+    /**
+     * 计算字符串的 HMAC（Base64 编码）
+     */
+    public String signBase64(String data) {
+        return Base64.getEncoder().encodeToString(sign(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 常量时间校验 Base64 编码的 HMAC，格式非法时返回 false
+     */
+    public boolean verifyBase64(String data, String signatureBase64) {
+        if (signatureBase64 == null) {
+            return false;
+        }
+        byte[] signature;
+        try {
+            signature = Base64.getDecoder().decode(signatureBase64);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return verify(data.getBytes(StandardCharsets.UTF_8), signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGO);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC 初始化失败", e);
+        }
+    }
+}
@@ -1,17 +1,11 @@
 package org.example.licenseplatform.util;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-
 /**
  * HMAC 签名工具类（适用于服务端和客户端）
+ * 基于 {@link HmacEngine}：Mac 实例按密钥、按线程复用，校验为常量时间比较
  */
 public class HmacUtils {
 
-    private static final String HMAC_ALGO = "HmacSHA256";
-
     /**
      * 生成 HMAC 签名
      *
@@ -21,11 +15,7 @@ public class HmacUtils {
      */
     public static String sign(String data, String secretKey) {
         try {
-            Mac mac = Mac.getInstance(HMAC_ALGO);
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGO);
-            mac.init(secretKeySpec);
-            byte[] hmacBytes = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(hmacBytes);
+            return HmacEngine.forSecret(secretKey).signBase64(data);
         } catch (Exception e) {
             throw new RuntimeException("HMAC 签名失败", e);
         }
@@ -35,6 +25,6 @@ public class HmacUtils {
      * 校验签名
      */
     public static boolean verify(String data, String signature, String secretKey) {
-        return sign(data, secretKey).equals(signature);
+        return HmacEngine.forSecret(secretKey).verifyBase64(data, signature);
     }
 }
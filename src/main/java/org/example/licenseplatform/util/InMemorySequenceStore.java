@@ -0,0 +1,18 @@
+package org.example.licenseplatform.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内序号存储：重启后计数清零，仅用于测试和本地调试
+ */
+public class InMemorySequenceStore implements SequenceStore {
+
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public long incrementBy(String key, long delta) {
+        return counters.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+    }
+}
@@ -3,6 +3,7 @@ package org.example.licenseplatform.util;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.security.KeyStore;
+import java.security.MessageDigest;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.cert.Certificate;
@@ -34,6 +35,19 @@ public class KeyStoreUtils {
         return (PrivateKey) keyStore.getKey(alias, keyPass.toCharArray());
     }
 
+    /**
+     * 从输入流中加载 JKS 密钥库（调用方负责关闭流，便于先读取字节计算校验和再解析）
+     *
+     * @param in JKS 内容输入流
+     * @param storePass 密钥库密码
+     * @return 密钥库对象
+     */
+    public static KeyStore loadKeyStore(InputStream in, String storePass) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        keyStore.load(in, storePass.toCharArray());
+        return keyStore;
+    }
+
     /**
      * 从 JKS 中加载公钥（用于客户端验签）
      *
@@ -69,4 +83,25 @@ public class KeyStoreUtils {
             throw new RuntimeException("加载公钥失败：" + cerPath, e);
         }
     }
+
+    /**
+     * 计算公钥的密钥 ID（kid）：公钥 DER 编码的 SHA-256 前 8 字节，十六进制小写
+     * 签发端与校验端对同一证书得到相同的 kid，用于在公钥环中定位验签公钥
+     *
+     * @param publicKey 公钥
+     * @return 16 位十六进制 kid
+     */
+    public static String keyId(PublicKey publicKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+            StringBuilder sb = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                sb.append(Character.forDigit((digest[i] >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            throw new RuntimeException("计算公钥 kid 失败", e);
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package org.example.licenseplatform.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 耗时采样窗口：环形缓冲区保存最近 N 次耗时（毫秒），查询时排序计算分位数
+ * 记录为 O(1)，分位数只在查询统计时计算
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private long count;
+
+    public LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        count++;
+    }
+
+    /**
+     * 最近窗口内的 p50 / p95 / p99 / max（毫秒）及累计样本数
+     */
+    public Map<String, Object> snapshot() {
+        long[] copy;
+        long total;
+        synchronized (this) {
+            total = count;
+            copy = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+        }
+        Arrays.sort(copy);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", total);
+        stats.put("p50", percentile(copy, 0.50));
+        stats.put("p95", percentile(copy, 0.95));
+        stats.put("p99", percentile(copy, 0.99));
+        stats.put("max", copy.length == 0 ? 0L : copy[copy.length - 1]);
+        return stats;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.licenseplatform.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.SignedLicense;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * License 文件编解码工具
+ *
+ * 新格式（LIC2）：
+ * <pre>
+ * LIC2 {"alg":"SHA256withRSA","kid":"...","sig":"Base64 签名"}\n
+ * payload（LicenseContent 的紧凑 JSON，原样参与签名）
+ * </pre>
+ * 签名针对 payload 的原始字节，校验时无需重新序列化；旧格式（内嵌 signature 的整份 JSON）通过兼容路径解码。
+ * payload 可以是紧凑 JSON 或 Smile 二进制（见 {@link PayloadFormat}），解码时按 payload 开头的魔数自动识别。
+ * 签名算法取自文件头的 alg，payload 中的 alg 同样参与签名，两者不一致时拒绝解码；均未声明时按 RSA 处理。
+ */
+public class LicenseFileCodec {
+
+    /** 新格式文件头魔数 */
+    public static final String MAGIC = "LIC2 ";
+
+    private static final byte[] MAGIC_BYTES = MAGIC.getBytes(StandardCharsets.US_ASCII);
+
+    private static final ObjectMapper MAPPER = JsonUtils.getMapper();
+
+    /** payload 与文件头都使用紧凑输出 */
+    private static final ObjectWriter COMPACT_WRITER = MAPPER.writer().without(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * 将 License 内容序列化为待签名的 JSON payload 字节（签名字段必须为空）
+     *
+     * @param content License 内容
+     * @return payload 字节
+     */
+    public static byte[] toPayload(LicenseContent content) throws IOException {
+        return toPayload(content, PayloadFormat.JSON);
+    }
+
+    /**
+     * 将 License 内容按指定格式序列化为待签名的 payload 字节（签名字段必须为空）
+     *
+     * @param content License 内容
+     * @param format  payload 编码格式
+     * @return payload 字节
+     */
+    public static byte[] toPayload(LicenseContent content, PayloadFormat format) throws IOException {
+        if (content.getSignature() != null) {
+            throw new IllegalArgumentException("payload 中不能包含签名字段");
+        }
+        return format.getWriter().writeValueAsBytes(content);
+    }
+
+    /**
+     * 组装新格式 License 文件
+     *
+     * @param payload   已签名的 payload 字节
+     * @param signature Base64 编码的签名
+     * @param alg       签名算法
+     * @param kid       签名密钥 ID（可为空）
+     * @return 文件内容
+     */
+    public static byte[] encode(byte[] payload, String signature, String alg, String kid) throws IOException {
+        ObjectNode header = MAPPER.createObjectNode();
+        header.put("alg", alg);
+        if (kid != null) {
+            header.put("kid", kid);
+        }
+        header.put("sig", signature);
+
+        byte[] headerBytes = COMPACT_WRITER.writeValueAsBytes(header);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(MAGIC_BYTES.length + headerBytes.length + 1 + payload.length);
+        out.write(MAGIC_BYTES);
+        out.write(headerBytes);
+        out.write('\n');
+        out.write(payload);
+        return out.toByteArray();
+    }
+
+    /**
+     * 是否为新格式 License 文件
+     */
+    public static boolean isEnvelope(byte[] bytes) {
+        if (bytes.length < MAGIC_BYTES.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC_BYTES.length; i++) {
+            if (bytes[i] != MAGIC_BYTES[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解码 License 文件（自动识别新旧格式）
+     *
+     * @param bytes 文件内容
+     * @return 解码后的 License
+     */
+    public static SignedLicense decode(byte[] bytes) throws IOException {
+        return isEnvelope(bytes) ? decodeEnvelope(bytes) : decodeLegacy(bytes);
+    }
+
+    private static SignedLicense decodeEnvelope(byte[] bytes) throws IOException {
+        int headerEnd = -1;
+        for (int i = MAGIC_BYTES.length; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                headerEnd = i;
+                break;
+            }
+        }
+        if (headerEnd < 0) {
+            throw new IOException("License 文件头不完整");
+        }
+
+        JsonNode header = MAPPER.readTree(bytes, MAGIC_BYTES.length, headerEnd - MAGIC_BYTES.length);
+        String signature = header.path("sig").asText(null);
+        if (signature == null || signature.isEmpty()) {
+            throw new IOException("License 文件头缺少签名");
+        }
+
+        int payloadOffset = headerEnd + 1;
+        int payloadLength = bytes.length - payloadOffset;
+        LicenseContent content = PayloadFormat.detect(bytes, payloadOffset, payloadLength).getMapper()
+                .readValue(bytes, payloadOffset, payloadLength, LicenseContent.class);
+        content.setSignature(signature);
+
+        String alg = header.path("alg").asText(null);
+        if (content.getAlg() != null) {
+            if (alg != null && !alg.equalsIgnoreCase(content.getAlg())) {
+                throw new IOException("License 文件头与内容中的签名算法不一致");
+            }
+            alg = content.getAlg();
+        }
+
+        // 文件头不参与签名，kid 同样必须与内容一致，不能借文件头另选公钥
+        String kid = header.path("kid").asText(null);
+        if (content.getKid() != null) {
+            if (kid != null && !kid.equals(content.getKid())) {
+                throw new IOException("License 文件头与内容中的密钥 ID 不一致");
+            }
+            kid = content.getKid();
+        }
+
+        return new SignedLicense(content, bytes, payloadOffset, payloadLength, signature,
+                alg != null ? alg : SignatureUtils.SIGN_ALGORITHM, kid, false);
+    }
+
+    /**
+     * 兼容旧格式：签名内嵌在 JSON 中，去掉签名后按统一 mapper 重新序列化得到签名数据
+     */
+    private static SignedLicense decodeLegacy(byte[] bytes) throws IOException {
+        LicenseContent content = MAPPER.readValue(bytes, LicenseContent.class);
+        String signature = content.getSignature();
+
+        content.setSignature(null);
+        byte[] payload = MAPPER.writeValueAsString(content).getBytes(StandardCharsets.UTF_8);
+        content.setSignature(signature);
+
+        return new SignedLicense(content, payload, 0, payload.length, signature,
+                content.getAlg() != null ? content.getAlg() : SignatureUtils.SIGN_ALGORITHM, content.getKid(), true);
+    }
+}
@@ -1,23 +1,53 @@
 package org.example.licenseplatform.util;
 
+import org.example.licenseplatform.config.LicenseConfig;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * License ID 生成工具类
  * 格式示例：DOCX-TST-202509-001
+ *
+ * 序号采用号段（hi/lo）分配：每个 项目 + 客户 + 月份 维度通过一次序号存储递增（Redis INCRBY 或本地映射文件）
+ * 预留 blockSize 个序号，之后在本地用原子计数器逐个发放，号段用完再预留下一段。多个实例预留的号段互不重叠，序号仍然全局唯一；
+ * 进程重启时未用完的号段会被跳过，序号可能不连续。
  */
 @Component
 public class LicenseIdGenerator {
 
-    private static final String REDIS_KEY_PREFIX = "license:id:";
+    private static final String KEY_PREFIX = "license:id:";
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /** 简写缓存的最大条目数，超过后整体清空 */
+    private static final int SHORT_CODE_CACHE_SIZE = 4096;
 
     @Autowired
-    private StringRedisTemplate redisTemplate;
+    private SequenceStore sequenceStore;
+
+    @Autowired
+    private LicenseConfig licenseConfig;
+
+    /** 原始名称 -> 大写简写 */
+    private final ConcurrentMap<String, String> shortCodes = new ConcurrentHashMap<>();
+
+    /** 序号 key -> 当前号段（仅保留当月的号段） */
+    private final ConcurrentMap<String, SequenceBlock> blocks = new ConcurrentHashMap<>();
+
+    /** 序号 key -> 号段预留锁 */
+    private final ConcurrentMap<String, Object> refillLocks = new ConcurrentHashMap<>();
+
+    /** 当前月份及其结束时间，跨月时重新计算 */
+    private volatile MonthPart month;
 
     /**
      * 自动生成带序号的 licenseId
@@ -27,22 +57,107 @@ public class LicenseIdGenerator {
      * @return licenseId 如 DOCX-TST-202509-001
      */
     public String generate(String projectId, String customerName) {
+        return generate(projectId, customerName, 1).get(0);
+    }
+
+    /**
+     * 批量生成同一项目、同一客户的 licenseId（批量签发使用，整批最多只访问一次序号存储）
+     *
+     * @param projectId    项目标识
+     * @param customerName 客户公司名称
+     * @param count        生成数量
+     * @return 按序号递增的 licenseId 列表
+     */
+    public List<String> generate(String projectId, String customerName, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("生成数量必须大于 0");
+        }
         String projectCode = toShortCode(projectId);      // 如：DOCX
         String customerCode = toShortCode(customerName);  // 如：TST
-        String datePart = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMM")); // 如：202509
+        String datePart = currentMonth();                 // 如：202509
 
-        // Redis key: license:id:DOCX:TST:202509
-        String redisKey = String.format("%s%s:%s:%s",
-                REDIS_KEY_PREFIX, projectCode, customerCode, datePart);
+        // 序号 key: license:id:DOCX:TST:202509
+        String key = new StringBuilder(KEY_PREFIX.length() + projectCode.length() + customerCode.length() + 8)
+                .append(KEY_PREFIX).append(projectCode).append(':')
+                .append(customerCode).append(':').append(datePart).toString();
+
+        List<String> ids = new ArrayList<>(count);
+        String prefix = projectCode + '-' + customerCode + '-' + datePart + '-';
+        int remaining = count;
+        while (remaining > 0) {
+            SequenceBlock block = blocks.get(key);
+            if (block != null) {
+                long[] range = block.take(remaining);
+                if (range != null) {
+                    for (long seq = range[0]; seq < range[1]; seq++) {
+                        ids.add(format(prefix, seq));
+                    }
+                    remaining -= (int) (range[1] - range[0]);
+                    continue;
+                }
+            }
+            refill(key, block, remaining);
+        }
+        return ids;
+    }
+
+    /**
+     * 预留新号段：一次递增，大小取 blockSize 与本次需求量中的较大者
+     * 同一个 key 只有一个线程负责预留，其他线程等待后直接使用新号段
+     */
+    private void refill(String key, SequenceBlock exhausted, int needed) {
+        synchronized (lockFor(key)) {
+            if (blocks.get(key) != exhausted) {
+                return; // 其他线程已完成预留
+            }
+            long size = Math.max(Math.max(1, licenseConfig.getSequence().getBlockSize()), needed);
+            long hi = sequenceStore.incrementBy(key, size);
+            // 本次预留的号段为 (hi - size, hi]
+            blocks.put(key, new SequenceBlock(hi - size + 1, hi + 1));
+        }
+    }
 
-        // 自增序号（从 1 开始）
-        Long seq = redisTemplate.opsForValue().increment(redisKey);
+    private Object lockFor(String key) {
+        return refillLocks.computeIfAbsent(key, k -> new Object());
+    }
 
-        // 序号格式化为 3 位数字（如 001）
-        String seqPart = String.format("%03d", seq);
+    /**
+     * 序号格式化为至少 3 位数字（如 001），超过 3 位时保持原样
+     */
+    private static String format(String prefix, long seq) {
+        StringBuilder sb = new StringBuilder(prefix.length() + 4).append(prefix);
+        if (seq < 10) {
+            sb.append("00");
+        } else if (seq < 100) {
+            sb.append('0');
+        }
+        return sb.append(seq).toString();
+    }
 
-        // 拼接完整 License ID
-        return String.join("-", projectCode, customerCode, datePart, seqPart);
+    /**
+     * 当前月份（yyyyMM），只在跨月时重新格式化；跨月时清理上个月的号段
+     */
+    private String currentMonth() {
+        long now = System.currentTimeMillis();
+        MonthPart current = month;
+        if (current != null && now < current.endMillis) {
+            return current.value;
+        }
+        synchronized (this) {
+            current = month;
+            if (current == null || now >= current.endMillis) {
+                ZoneId zone = ZoneId.systemDefault();
+                YearMonth yearMonth = YearMonth.now(zone);
+                long endMillis = yearMonth.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant().toEpochMilli();
+                if (current != null) {
+                    blocks.clear();
+                    refillLocks.clear();
+                }
+                current = new MonthPart(yearMonth.format(MONTH_FORMAT), endMillis);
+                month = current;
+            }
+            return current.value;
+        }
     }
 
     /**
@@ -53,8 +168,64 @@ public class LicenseIdGenerator {
      */
     private String toShortCode(String input) {
         if (input == null) return "NULL";
+        String cached = shortCodes.get(input);
+        if (cached != null) {
+            return cached;
+        }
         // 只保留字母数字，转为大写
-        String clean = input.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
-        return clean.length() <= 4 ? clean : clean.substring(0, 4);
+        StringBuilder clean = new StringBuilder(4);
+        for (int i = 0; i < input.length() && clean.length() < 4; i++) {
+            char c = input.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                clean.append(Character.toUpperCase(c));
+            }
+        }
+        String code = clean.toString();
+        if (shortCodes.size() >= SHORT_CODE_CACHE_SIZE) {
+            shortCodes.clear();
+        }
+        shortCodes.put(input, code);
+        return code;
+    }
+
+    /**
+     * 本地号段：[next, end) 内的序号由原子计数器逐个发放
+     */
+    private static final class SequenceBlock {
+        private final AtomicLong next;
+        private final long end;
+
+        private SequenceBlock(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+
+        /**
+         * 从号段中取出最多 count 个连续序号
+         *
+         * @return [起始, 结束) 区间，号段已用完时返回 null
+         */
+        private long[] take(int count) {
+            while (true) {
+                long start = next.get();
+                if (start >= end) {
+                    return null;
+                }
+                long stop = Math.min(end, start + count);
+                if (next.compareAndSet(start, stop)) {
+                    return new long[]{start, stop};
+                }
+            }
+        }
+    }
+
+    private static final class MonthPart {
+        private final String value;
+        private final long endMillis;
+
+        private MonthPart(String value, long endMillis) {
+            this.value = value;
+            this.endMillis = endMillis;
+        }
     }
 }
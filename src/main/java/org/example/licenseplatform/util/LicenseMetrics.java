@@ -0,0 +1,104 @@
+package org.example.licenseplatform.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * License 相关的 Micrometer 指标，统一注册到 Metrics.globalRegistry
+ *
+ * Spring Boot 会把 Prometheus 注册表加入全局注册表，因此不依赖 Spring 的代码（如指纹采集、客户端校验）也能上报，
+ * 通过 /actuator/prometheus 导出。各指标按标签值缓存，记录时不重复查找注册表。
+ * <ul>
+ *     <li>license.verify.stage：校验各阶段耗时（stage = signature / time / machine / first_used / rollback，
+ *     signature 阶段包含读取文件与流式验签，缓存命中时只有查缓存的耗时）</li>
+ *     <li>license.verify.stage.failures：校验各阶段失败次数（stage、code）</li>
+ *     <li>license.issue.step：签发各步骤耗时（step = id_allocation / key_load / sign / file_write）</li>
+ *     <li>license.interceptor.decisions：拦截器放行 / 拒绝次数（decision = allow / deny）</li>
+ *     <li>license.fingerprint.probe：硬件指纹采集耗时</li>
+ * </ul>
+ */
+public final class LicenseMetrics {
+
+    private static final ConcurrentMap<String, Timer> STAGE_TIMERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Counter> STAGE_FAILURES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Timer> ISSUE_TIMERS = new ConcurrentHashMap<>();
+
+    private static final Counter ALLOWED = decisionCounter("allow");
+    private static final Counter DENIED = decisionCounter("deny");
+
+    private static final Timer FINGERPRINT_PROBE = Timer.builder("license.fingerprint.probe")
+            .description("硬件指纹采集耗时")
+            .register(Metrics.globalRegistry);
+
+    private LicenseMetrics() {
+    }
+
+    /**
+     * 记录校验阶段耗时
+     *
+     * @param stage      阶段名
+     * @param startNanos 阶段开始时的 System.nanoTime()
+     */
+    public static void recordStage(String stage, long startNanos) {
+        STAGE_TIMERS.computeIfAbsent(stage, s -> Timer.builder("license.verify.stage")
+                        .description("License 校验各阶段耗时")
+                        .tag("stage", s)
+                        .register(Metrics.globalRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录校验阶段失败
+     *
+     * @param stage 阶段名
+     * @param code  失败结果码
+     */
+    public static void stageFailed(String stage, int code) {
+        STAGE_FAILURES.computeIfAbsent(stage + '|' + code, k -> Counter.builder("license.verify.stage.failures")
+                        .description("License 校验各阶段失败次数")
+                        .tag("stage", stage)
+                        .tag("code", String.valueOf(code))
+                        .register(Metrics.globalRegistry))
+                .increment();
+    }
+
+    /**
+     * 记录签发步骤耗时
+     *
+     * @param step       步骤名
+     * @param startNanos 步骤开始时的 System.nanoTime()
+     */
+    public static void recordIssueStep(String step, long startNanos) {
+        ISSUE_TIMERS.computeIfAbsent(step, s -> Timer.builder("license.issue.step")
+                        .description("License 签发各步骤耗时")
+                        .tag("step", s)
+                        .register(Metrics.globalRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录拦截器的放行 / 拒绝
+     */
+    public static void interceptorDecision(boolean allowed) {
+        (allowed ? ALLOWED : DENIED).increment();
+    }
+
+    /**
+     * 记录一次硬件指纹采集耗时
+     */
+    public static void recordFingerprintProbe(long startNanos) {
+        FINGERPRINT_PROBE.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Counter decisionCounter(String decision) {
+        return Counter.builder("license.interceptor.decisions")
+                .description("License 拦截器放行 / 拒绝次数")
+                .tag("decision", decision)
+                .register(Metrics.globalRegistry);
+    }
+}
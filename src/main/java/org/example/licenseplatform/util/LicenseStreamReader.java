@@ -0,0 +1,393 @@
+package org.example.licenseplatform.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.MachineInfo;
+import org.example.licenseplatform.model.SignedLicense;
+import org.example.licenseplatform.model.StreamedLicense;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * License 流式加载器：边读文件边更新验签摘要、边解析 payload，读到文件末尾时完成验签
+ *
+ * 用法：先 {@link #open(Path)} 读取文件头，按 {@link #getKid()} 选出公钥后调用 {@link #read}。
+ * 绑定机器列表逐台交给调用方的比对函数，不构建 MachineInfo 列表，整个过程不持有完整文件内容，
+ * 峰值内存与授权机器数量无关。payload 为 JSON 或 Smile 均可，按开头的魔数自动选择解析器。
+ * 旧格式文件（签名内嵌在 JSON 中）无法流式验签，打开时整体读入并走兼容解码。
+ */
+public final class LicenseStreamReader implements Closeable {
+
+    /** 文件头最大长度，超过视为格式错误 */
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ObjectMapper MAPPER = JsonUtils.getMapper();
+
+    private static final TypeReference<Map<String, Boolean>> FEATURES_TYPE = new TypeReference<Map<String, Boolean>>() {
+    };
+
+    private static final byte[] MAGIC_BYTES = LicenseFileCodec.MAGIC.getBytes(StandardCharsets.US_ASCII);
+
+    private final InputStream in;
+    private final String signature;
+    private final String alg;
+    private final String kid;
+
+    /** 旧格式文件的兼容解码结果（新格式为 null） */
+    private final SignedLicense legacy;
+
+    private LicenseStreamReader(InputStream in, String signature, String alg, String kid, SignedLicense legacy) {
+        this.in = in;
+        this.signature = signature;
+        this.alg = alg;
+        this.kid = kid;
+        this.legacy = legacy;
+    }
+
+    /**
+     * 打开 License 文件并读取文件头
+     */
+    public static LicenseStreamReader open(Path path) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+        try {
+            return open(in);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 从输入流读取文件头（输入流由返回的加载器负责关闭）
+     */
+    public static LicenseStreamReader open(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            in = new BufferedInputStream(in, BUFFER_SIZE);
+        }
+        in.mark(MAGIC_BYTES.length);
+        byte[] magic = new byte[MAGIC_BYTES.length];
+        int read = readFully(in, magic);
+        if (read < MAGIC_BYTES.length || !Arrays.equals(magic, MAGIC_BYTES)) {
+            in.reset();
+            SignedLicense signed = LicenseFileCodec.decode(readAll(in));
+            return new LicenseStreamReader(in, signed.getSignature(), signed.getAlg(), signed.getKid(), signed);
+        }
+
+        JsonNode header = MAPPER.readTree(readHeader(in));
+        String signature = header.path("sig").asText(null);
+        if (signature == null || signature.isEmpty()) {
+            throw new IOException("License 文件头缺少签名");
+        }
+        String alg = header.path("alg").asText(SignatureUtils.SIGN_ALGORITHM);
+        return new LicenseStreamReader(in, signature, alg, header.path("kid").asText(null), null);
+    }
+
+    /**
+     * 文件头中的签名密钥 ID（可能为空，此时使用默认公钥）
+     */
+    public String getKid() {
+        return kid;
+    }
+
+    /**
+     * 文件头中的签名算法
+     */
+    public String getAlg() {
+        return alg;
+    }
+
+    /**
+     * 读取 payload：边读边验签，逐台比对绑定机器
+     *
+     * @param publicKey      验签公钥
+     * @param machineMatcher 绑定机器比对函数；传入的 MachineInfo 实例会被复用，不能保存引用
+     * @return 授权内容与校验结论
+     */
+    public StreamedLicense read(PublicKey publicKey, Predicate<MachineInfo> machineMatcher)
+            throws IOException, GeneralSecurityException {
+        if (legacy != null) {
+            return readLegacy(publicKey, machineMatcher);
+        }
+
+        SignatureScheme scheme = SignatureScheme.of(alg);
+        Signature verifier = scheme.newVerifier(publicKey);
+        ObjectMapper mapper = detectFormat().getMapper();
+        SigningInputStream payload = new SigningInputStream(in, verifier);
+
+        LicenseContent content = new LicenseContent();
+        MachineScan machines = new MachineScan(machineMatcher);
+        JsonParser parser = mapper.getFactory().createParser(payload);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("License 内容格式错误");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "licenseId": content.setLicenseId(text(parser, token)); break;
+                    case "projectId": content.setProjectId(text(parser, token)); break;
+                    case "customer": content.setCustomer(text(parser, token)); break;
+                    case "mode": content.setMode(text(parser, token)); break;
+                    case "alg": content.setAlg(text(parser, token)); break;
+                    case "kid": content.setKid(text(parser, token)); break;
+                    case "issueDate": content.setIssueDate(number(parser, token)); break;
+                    case "expireDate": content.setExpireDate(number(parser, token)); break;
+                    case "firstUsedAt": content.setFirstUsedAt(number(parser, token)); break;
+                    case "features":
+                        content.setFeatures(token == JsonToken.VALUE_NULL ? null : mapper.readValue(parser, FEATURES_TYPE));
+                        break;
+                    case "boundMachines": machines.scan(parser, token); break;
+                    default: parser.skipChildren(); break;
+                }
+            }
+        } finally {
+            parser.close();
+        }
+        // payload 之后若还有字节同样参与签名
+        payload.drain();
+
+        // 与 LicenseFileCodec 一致：内容中声明的算法必须与文件头一致
+        if (content.getAlg() != null && !content.getAlg().equalsIgnoreCase(scheme.getAlgorithm())) {
+            throw new IOException("License 文件头与内容中的签名算法不一致");
+        }
+        if (kid != null && content.getKid() != null && !kid.equals(content.getKid())) {
+            throw new IOException("License 文件头与内容中的密钥 ID 不一致");
+        }
+        content.setSignature(signature);
+
+        boolean valid;
+        try {
+            valid = verifier.verify(Base64.getDecoder().decode(signature));
+        } catch (IllegalArgumentException | SignatureException e) {
+            valid = false;
+        }
+        return new StreamedLicense(content, scheme.getAlgorithm(), kid != null ? kid : content.getKid(), valid,
+                machines.count, machines.firstMatched, machines.anyMatched);
+    }
+
+    /**
+     * 预读 payload 开头的魔数识别编码格式（读取后回退，魔数同样参与签名）
+     */
+    private PayloadFormat detectFormat() throws IOException {
+        byte[] magic = new byte[PayloadFormat.magicLength()];
+        in.mark(magic.length);
+        int read = readFully(in, magic);
+        in.reset();
+        return PayloadFormat.detect(magic, 0, read);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private StreamedLicense readLegacy(PublicKey publicKey, Predicate<MachineInfo> machineMatcher) throws IOException {
+        LicenseContent content = legacy.getContent();
+        boolean valid;
+        try {
+            valid = SignatureUtils.verify(legacy.getData(), legacy.getPayloadOffset(), legacy.getPayloadLength(),
+                    legacy.getSignature(), publicKey, legacy.getAlg());
+        } catch (Exception e) {
+            valid = false;
+        }
+
+        List<MachineInfo> machines = content.getBoundMachines();
+        int count = machines == null ? 0 : machines.size();
+        boolean first = false;
+        boolean any = false;
+        for (int i = 0; i < count; i++) {
+            if (machineMatcher.test(machines.get(i))) {
+                first |= i == 0;
+                any = true;
+                if (first) {
+                    break;
+                }
+            }
+        }
+        return new StreamedLicense(content, legacy.getAlg(), legacy.getKid(), valid, count, first, any);
+    }
+
+    private static String text(JsonParser parser, JsonToken token) throws IOException {
+        return token == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+
+    private static Long number(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_NUMBER_INT) {
+            throw new IOException("License 内容格式错误：" + parser.getCurrentName() + " 应为整数");
+        }
+        return parser.getLongValue();
+    }
+
+    private static byte[] readHeader(InputStream in) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(256);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                throw new IOException("License 文件头不完整");
+            }
+            if (header.size() >= MAX_HEADER_BYTES) {
+                throw new IOException("License 文件头过长");
+            }
+            header.write(b);
+        }
+        return header.toByteArray();
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int n = in.read(buffer, total, buffer.length - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 绑定机器数组的逐台扫描：复用同一个 MachineInfo，只记录数量与比对结果
+     */
+    private static final class MachineScan {
+        private final Predicate<MachineInfo> matcher;
+        private final MachineInfo machine = new MachineInfo();
+        private int count;
+        private boolean firstMatched;
+        private boolean anyMatched;
+
+        private MachineScan(Predicate<MachineInfo> matcher) {
+            this.matcher = matcher;
+        }
+
+        private void scan(JsonParser parser, JsonToken token) throws IOException {
+            if (token == JsonToken.VALUE_NULL) {
+                return;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("License 内容格式错误：boundMachines 应为数组");
+            }
+            JsonToken element;
+            while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (element != JsonToken.START_OBJECT) {
+                    throw new IOException("License 内容格式错误：boundMachines 元素应为对象");
+                }
+                machine.setCpuSerial(null);
+                machine.setMacAddress(null);
+                machine.setMainBoardSerial(null);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "cpuSerial": machine.setCpuSerial(text(parser, value)); break;
+                        case "macAddress": machine.setMacAddress(text(parser, value)); break;
+                        case "mainBoardSerial": machine.setMainBoardSerial(text(parser, value)); break;
+                        default: parser.skipChildren(); break;
+                    }
+                }
+                // 已经匹配后只需计数，不再比对
+                if (!anyMatched) {
+                    boolean matched = matcher.test(machine);
+                    firstMatched |= matched && count == 0;
+                    anyMatched |= matched;
+                }
+                count++;
+            }
+        }
+    }
+
+    /**
+     * 把读出的每个字节同时交给 Signature 更新摘要
+     */
+    private static final class SigningInputStream extends FilterInputStream {
+        private final Signature signature;
+
+        private SigningInputStream(InputStream in, Signature signature) {
+            super(in);
+            this.signature = signature;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                update(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                update(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // 跳过的字节同样要参与签名
+            byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+            int read = read(buffer, 0, buffer.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void drain() throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (read(buffer, 0, buffer.length) != -1) {
+                // 读到文件末尾
+            }
+        }
+
+        private void update(byte[] b, int off, int len) throws IOException {
+            try {
+                signature.update(b, off, len);
+            } catch (SignatureException e) {
+                throw new IOException("签名摘要更新失败", e);
+            }
+        }
+    }
+}
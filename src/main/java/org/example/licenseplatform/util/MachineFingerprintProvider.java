@@ -0,0 +1,136 @@
+package org.example.licenseplatform.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.licenseplatform.model.MachineInfo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 机器指纹提供者：缓存当前机器的硬件指纹快照，按刷新间隔重新采集
+ *
+ * 快照为只读的 MachineInfo，客户端校验、服务端校验与 /machine/info 共享同一份缓存；
+ * 刷新由一个线程完成，刷新期间其他线程继续读取旧快照，不会被采集过程阻塞。
+ */
+@Slf4j
+public class MachineFingerprintProvider {
+
+    /** 默认刷新间隔：5 分钟（必须在 INSTANCE 之前初始化） */
+    private static final long DEFAULT_REFRESH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final MachineFingerprintProvider INSTANCE = new MachineFingerprintProvider();
+
+    private volatile long refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_REFRESH_INTERVAL_MILLIS);
+
+    private volatile MachineInfo snapshot;
+
+    private volatile long collectedAt;
+
+    private final Object refreshLock = new Object();
+
+    /** 是否已有线程在刷新快照 */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * 获取全局共享实例
+     */
+    public static MachineFingerprintProvider getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 设置快照刷新间隔
+     *
+     * @param millis 刷新间隔（毫秒），小于等于 0 表示只采集一次
+     */
+    public void setRefreshIntervalMillis(long millis) {
+        this.refreshIntervalNanos = millis > 0 ? TimeUnit.MILLISECONDS.toNanos(millis) : Long.MAX_VALUE;
+    }
+
+    /**
+     * 获取当前机器指纹快照（只读）
+     */
+    public MachineInfo current() {
+        MachineInfo current = snapshot;
+        if (current == null) {
+            // 首次采集必须等待结果
+            synchronized (refreshLock) {
+                if (snapshot == null) {
+                    collect();
+                }
+                return snapshot;
+            }
+        }
+
+        if (System.nanoTime() - collectedAt >= refreshIntervalNanos) {
+            // 只有抢到锁的线程负责刷新，其余线程直接返回旧快照
+            if (tryRefresh()) {
+                return snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 立即重新采集（例如硬件变更后手动刷新）
+     */
+    public MachineInfo refresh() {
+        synchronized (refreshLock) {
+            collect();
+            return snapshot;
+        }
+    }
+
+    private boolean tryRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            synchronized (refreshLock) {
+                // 其他线程可能刚刚完成刷新
+                if (System.nanoTime() - collectedAt >= refreshIntervalNanos) {
+                    collect();
+                }
+            }
+            return true;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private void collect() {
+        long start = System.nanoTime();
+        MachineInfo probed = MachineInfoUtils.probeMachineInfo();
+        LicenseMetrics.recordFingerprintProbe(start);
+        snapshot = new ImmutableMachineInfo(probed);
+        collectedAt = System.nanoTime();
+        log.debug("机器指纹采集完成，耗时 {} ms", TimeUnit.NANOSECONDS.toMillis(collectedAt - start));
+    }
+
+    /**
+     * 只读的 MachineInfo：快照被多个线程共享，禁止修改
+     */
+    private static final class ImmutableMachineInfo extends MachineInfo {
+
+        private ImmutableMachineInfo(MachineInfo source) {
+            super.setCpuSerial(source.getCpuSerial());
+            super.setMacAddress(source.getMacAddress());
+            super.setMainBoardSerial(source.getMainBoardSerial());
+        }
+
+        @Override
+        public void setCpuSerial(String cpuSerial) {
+            throw new UnsupportedOperationException("机器指纹快照不可修改");
+        }
+
+        @Override
+        public void setMacAddress(String macAddress) {
+            throw new UnsupportedOperationException("机器指纹快照不可修改");
+        }
+
+        @Override
+        public void setMainBoardSerial(String mainBoardSerial) {
+            throw new UnsupportedOperationException("机器指纹快照不可修改");
+        }
+    }
+}
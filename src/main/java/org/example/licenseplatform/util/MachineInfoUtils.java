@@ -1,27 +1,75 @@
 package org.example.licenseplatform.util;
 
+import lombok.extern.slf4j.Slf4j;
 import org.example.licenseplatform.model.MachineInfo;
 
 import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
+@Slf4j
 public class MachineInfoUtils {
 
+    private static final Path DMI_BOARD_SERIAL = Paths.get("/sys/class/dmi/id/board_serial");
+
+    /**
+     * 获取当前机器指纹（共享的只读快照，按刷新间隔重新采集）
+     */
     public static MachineInfo getMachineInfo() {
+        return MachineFingerprintProvider.getInstance().current();
+    }
+
+    /**
+     * 立即采集当前机器指纹（不经过缓存）
+     * CPU、主板、MAC 三项并行探测，总耗时约等于最慢的一项
+     */
+    public static MachineInfo probeMachineInfo() {
+        CompletableFuture<String> cpu = getCPUSerialAsync();
+        CompletableFuture<String> board = getMainBoardSerialAsync();
+        CompletableFuture<String> mac = CompletableFuture.supplyAsync(MachineInfoUtils::getFirstMacAddress,
+                CommandExecutor.executor());
+
         MachineInfo info = new MachineInfo();
-        info.setCpuSerial(getCPUSerial());
-        info.setMacAddress(getFirstMacAddress());
-        info.setMainBoardSerial(getMainBoardSerial());
+        info.setCpuSerial(cpu.join());
+        info.setMacAddress(mac.join());
+        info.setMainBoardSerial(board.join());
         return info;
     }
 
     public static String getCPUSerial() {
-        // Mac/Linux 示例命令，Windows 可另行适配
-        return CommandExecutor.exec("dmidecode -t processor | grep ID");
+        return getCPUSerialAsync().join();
     }
 
     public static String getMainBoardSerial() {
-        return CommandExecutor.exec("dmidecode -t baseboard | grep Serial");
+        return getMainBoardSerialAsync().join();
+    }
+
+    /**
+     * 异步获取 CPU 序列号，命令失败或超时返回空字符串
+     */
+    public static CompletableFuture<String> getCPUSerialAsync() {
+        // Mac/Linux 示例命令，Windows 可另行适配
+        // 不读取 /proc/cpuinfo 的 Serial：其输出与 dmidecode 不同，会改变已签发 License 的指纹
+        // 等价于 dmidecode -t processor | grep ID，直接启动 dmidecode 并在 Java 中过滤
+        return execQuietly(line -> line.contains("ID"), "dmidecode", "-t", "processor");
+    }
+
+    /**
+     * 异步获取主板序列号，命令失败或超时返回空字符串
+     */
+    public static CompletableFuture<String> getMainBoardSerialAsync() {
+        // 优先读取 sysfs，输出格式与 dmidecode 的 "Serial Number: xxx" 保持一致，已签发的 License 不受影响
+        String serial = readFirstLine(DMI_BOARD_SERIAL);
+        if (serial != null && !serial.isEmpty()) {
+            return CompletableFuture.completedFuture("Serial Number: " + serial);
+        }
+        return execQuietly(line -> line.contains("Serial"), "dmidecode", "-t", "baseboard");
     }
 
     public static String getFirstMacAddress() {
@@ -41,4 +89,24 @@ public class MachineInfoUtils {
         } catch (Exception ignored) {}
         return null;
     }
+
+    private static CompletableFuture<String> execQuietly(Predicate<String> lineFilter, String... command) {
+        return CommandExecutor.execAsync(lineFilter, command).exceptionally(e -> {
+            log.warn("硬件信息探测失败：{}，{}", String.join(" ", command),
+                    e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return "";
+        });
+    }
+
+    private static String readFirstLine(Path path) {
+        // board_serial 等文件通常仅 root 可读，不可读时回退到 dmidecode
+        if (!Files.isReadable(path)) {
+            return null;
+        }
+        try {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            return lines.isEmpty() ? null : lines.get(0).trim();
+        } catch (Exception ignored) {}
+        return null;
+    }
 }
@@ -0,0 +1,234 @@
+package org.example.licenseplatform.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于内存映射文件的本地序号存储，适用于无 Redis 的离线签发环境
+ *
+ * 文件结构：
+ * <pre>
+ * 文件头（16 字节）：魔数 LSEQ | 版本 | 槽位大小 | 槽位数量
+ * 槽位（128 字节）：计数器（8 字节）| key 长度（4 字节）| key（UTF-8，最多 116 字节）
+ * </pre>
+ * 计数器在内存中以 AtomicLong 做 CAS 递增，递增结果在返回前单调地写入映射区域并 force 到磁盘，
+ * 进程崩溃、断电或系统崩溃后已发放的序号都不会回退。调用方按号段（license.sequence.block-size）递增，
+ * 每个号段只刷盘一次，而不是每个序号一次。新 key 写入槽位时先写 key 再写长度，长度非 0 即视为有效槽位。
+ * 打开文件时获取排他 FileLock，同一文件同时只允许一个进程使用。
+ * 每个 key（项目 + 客户 + 月份）永久占用一个槽位，槽位用完时文件容量翻倍并重新映射，已有计数器保持不变；
+ * 打开已有文件时若配置的容量更大，同样扩容到配置值。扩容时先扩展文件再更新文件头中的槽位数量，中途崩溃不影响已有槽位。
+ */
+@Slf4j
+public class MappedFileSequenceStore implements SequenceStore {
+
+    private static final int MAGIC = 0x4C534551; // "LSEQ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 128;
+    private static final int COUNTER_OFFSET = 0;
+    private static final int KEY_LENGTH_OFFSET = 8;
+    private static final int KEY_OFFSET = 12;
+    private static final int MAX_KEY_BYTES = SLOT_SIZE - KEY_OFFSET;
+    private static final int CAPACITY_OFFSET = 12;
+    /** 槽位偏移以 int 表示，容量上限 */
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FileLock lock;
+    /** 当前映射（扩容时整体替换） */
+    private volatile MappedByteBuffer buffer;
+
+    /** 槽位数量（受 this 监视器保护） */
+    private int capacity;
+
+    private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private int usedSlots;
+
+    /**
+     * 打开（不存在时创建）序号文件
+     *
+     * @param path     文件路径
+     * @param capacity 槽位数量（已有文件容量较小时扩容到该值）
+     */
+    public MappedFileSequenceStore(Path path, int capacity) throws IOException {
+        this.path = path.toAbsolutePath().normalize();
+        Path dir = this.path.getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        boolean created = !Files.exists(this.path) || Files.size(this.path) == 0;
+
+        channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            lock = tryLock(channel);
+            if (lock == null) {
+                throw new IllegalStateException("序号文件已被其他进程占用：" + this.path);
+            }
+
+            if (created) {
+                this.capacity = capacity;
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, SLOT_SIZE);
+                buffer.putInt(CAPACITY_OFFSET, capacity);
+                buffer.force();
+            } else {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != SLOT_SIZE) {
+                    throw new IllegalStateException("序号文件格式不正确：" + this.path);
+                }
+                this.capacity = header.getInt(CAPACITY_OFFSET);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) this.capacity * SLOT_SIZE);
+                loadSlots();
+                if (capacity > this.capacity) {
+                    grow(Math.min(capacity, MAX_CAPACITY));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        log.info("序号文件已打开：{}，已用槽位 {}/{}", this.path, usedSlots, this.capacity);
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // 同一 JVM 内已打开
+            return null;
+        }
+    }
+
+    @Override
+    public long incrementBy(String key, long delta) {
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            slot = createSlot(key);
+        }
+        long value = slot.counter.addAndGet(delta);
+        slot.persist(value);
+        return value;
+    }
+
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            lock.release();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("关闭序号文件失败：{}", path, e);
+        }
+    }
+
+    private void loadSlots() {
+        for (int i = 0; i < capacity; i++) {
+            int offset = HEADER_SIZE + i * SLOT_SIZE;
+            int keyLength = buffer.getInt(offset + KEY_LENGTH_OFFSET);
+            if (keyLength <= 0 || keyLength > MAX_KEY_BYTES) {
+                break;
+            }
+            byte[] keyBytes = new byte[keyLength];
+            for (int j = 0; j < keyLength; j++) {
+                keyBytes[j] = buffer.get(offset + KEY_OFFSET + j);
+            }
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            slots.put(key, new Slot(offset, buffer.getLong(offset + COUNTER_OFFSET)));
+            usedSlots = i + 1;
+        }
+    }
+
+    private synchronized Slot createSlot(String key) {
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            return slot;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("序号 key 过长（最多 " + MAX_KEY_BYTES + " 字节）：" + key);
+        }
+        if (usedSlots >= capacity) {
+            if (capacity >= MAX_CAPACITY) {
+                throw new IllegalStateException("序号文件槽位已达上限（" + capacity + "）：" + path);
+            }
+            try {
+                grow((int) Math.min((long) capacity * 2, MAX_CAPACITY));
+            } catch (IOException e) {
+                throw new IllegalStateException("序号文件扩容失败：" + path, e);
+            }
+        }
+        MappedByteBuffer buffer = this.buffer;
+
+        int offset = HEADER_SIZE + usedSlots * SLOT_SIZE;
+        buffer.putLong(offset + COUNTER_OFFSET, 0L);
+        for (int j = 0; j < keyBytes.length; j++) {
+            buffer.put(offset + KEY_OFFSET + j, keyBytes[j]);
+        }
+        // 长度最后写入，作为槽位有效的标记
+        buffer.putInt(offset + KEY_LENGTH_OFFSET, keyBytes.length);
+        buffer.force();
+        usedSlots++;
+
+        slot = new Slot(offset, 0L);
+        slots.put(key, slot);
+        return slot;
+    }
+
+    /**
+     * 扩容：映射更大的区域（文件随之扩展）并刷盘，最后更新文件头中的槽位数量
+     * 旧映射与新映射指向同一文件，扩容期间经旧映射写入的计数器同样落在文件中
+     */
+    private synchronized void grow(int newCapacity) throws IOException {
+        MappedByteBuffer grown = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * SLOT_SIZE);
+        grown.force();
+        grown.putInt(CAPACITY_OFFSET, newCapacity);
+        grown.force();
+        buffer = grown;
+        log.info("序号文件已扩容：{}，槽位 {} -> {}", path, capacity, newCapacity);
+        capacity = newCapacity;
+    }
+
+    /**
+     * 槽位：内存中的计数器 + 映射区域中的持久化位置
+     */
+    private final class Slot {
+        private final int offset;
+        private final AtomicLong counter;
+
+        /** 已写入映射区域的最大值（受 this 监视器保护） */
+        private long persisted;
+
+        private Slot(int offset, long value) {
+            this.offset = offset;
+            this.counter = new AtomicLong(value);
+            this.persisted = value;
+        }
+
+        /**
+         * 单调写入并刷盘：并发递增的结果可能乱序到达，只写入更大的值；刷盘完成后才返回，号段才会被使用
+         */
+        private synchronized void persist(long value) {
+            if (value > persisted) {
+                MappedByteBuffer buffer = MappedFileSequenceStore.this.buffer;
+                buffer.putLong(offset + COUNTER_OFFSET, value);
+                buffer.force();
+                persisted = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.licenseplatform.util;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 基于 Redis INCRBY 的序号存储，多个签发实例共享同一组计数器
+ */
+public class RedisSequenceStore implements SequenceStore {
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisSequenceStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long incrementBy(String key, long delta) {
+        Long value = redisTemplate.opsForValue().increment(key, delta);
+        if (value == null) {
+            throw new IllegalStateException("序号分配失败：Redis 未返回结果");
+        }
+        return value;
+    }
+}
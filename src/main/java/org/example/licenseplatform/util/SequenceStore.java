@@ -0,0 +1,29 @@
+package org.example.licenseplatform.util;
+
+import java.io.Closeable;
+
+/**
+ * 序号存储：为 License ID 提供按 key 递增的计数器
+ *
+ * 实现由 license.sequence.store 选择：
+ * <ul>
+ *     <li>redis：Redis INCRBY，多实例共享（默认）</li>
+ *     <li>file：本地内存映射文件，适用于无 Redis 的离线签发环境，进程崩溃后计数不丢失</li>
+ *     <li>memory：进程内计数，仅用于测试</li>
+ * </ul>
+ */
+public interface SequenceStore extends Closeable {
+
+    /**
+     * 将 key 对应的计数器增加 delta（不存在时从 0 开始）
+     *
+     * @param key   计数器 key
+     * @param delta 增量（大于 0）
+     * @return 增加后的值
+     */
+    long incrementBy(String key, long delta);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,238 @@
+package org.example.licenseplatform.util;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Security;
+import java.security.Signature;
+import java.security.interfaces.ECKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+/**
+ * 签名算法方案：License 文件头与内容中的 alg 字段取值即为 {@link #getAlgorithm()}
+ *
+ * <ul>
+ *     <li>RSA：SHA256withRSA，未声明 alg 的旧 License 一律按此算法校验</li>
+ *     <li>ED25519：Ed25519（BouncyCastle 实现），签名 64 字节，签名速度比 RSA 快一个数量级</li>
+ *     <li>ECDSA_P256：SHA256withECDSA，P-256 曲线</li>
+ * </ul>
+ * 校验使用的 Signature 实例按线程、按算法复用，同一线程连续校验同一公钥时无需重新 initVerify。
+ */
+public enum SignatureScheme {
+
+    RSA("SHA256withRSA", "RSA", null),
+    ED25519("Ed25519", "Ed25519", BouncyCastleProvider.PROVIDER_NAME),
+    ECDSA_P256("SHA256withECDSA", "EC", null);
+
+    static {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    /** JCA 签名算法名，同时作为 License 中的 alg 字段值 */
+    private final String algorithm;
+
+    /** 对应的密钥算法名 */
+    private final String keyAlgorithm;
+
+    /** 指定的 Provider，null 表示使用默认 Provider */
+    private final String provider;
+
+    private final ThreadLocal<Verifier> verifiers = ThreadLocal.withInitial(Verifier::new);
+
+    SignatureScheme(String algorithm, String keyAlgorithm, String provider) {
+        this.algorithm = algorithm;
+        this.keyAlgorithm = keyAlgorithm;
+        this.provider = provider;
+    }
+
+    /**
+     * 根据 alg 字段选择签名方案，未声明时按 RSA 处理
+     *
+     * @param alg License 中的 alg 字段
+     */
+    public static SignatureScheme of(String alg) {
+        if (alg == null || alg.isEmpty()) {
+            return RSA;
+        }
+        for (SignatureScheme scheme : values()) {
+            if (scheme.algorithm.equalsIgnoreCase(alg)) {
+                return scheme;
+            }
+        }
+        throw new IllegalArgumentException("不支持的签名算法：" + alg);
+    }
+
+    /**
+     * 根据密钥类型选择签名方案
+     *
+     * @param key 私钥或公钥
+     */
+    public static SignatureScheme forKey(Key key) {
+        String keyAlg = key.getAlgorithm();
+        if ("RSA".equalsIgnoreCase(keyAlg)) {
+            return RSA;
+        }
+        if ("EC".equalsIgnoreCase(keyAlg) || "ECDSA".equalsIgnoreCase(keyAlg)) {
+            // 只支持 P-256，其他曲线（P-384、secp256k1 等）不能标记为 SHA256withECDSA/P-256
+            if (!(key instanceof ECKey) || !isP256(((ECKey) key).getParams())) {
+                throw new IllegalArgumentException("不支持的 EC 曲线，仅支持 P-256（secp256r1）");
+            }
+            return ECDSA_P256;
+        }
+        if ("Ed25519".equalsIgnoreCase(keyAlg) || "EdDSA".equalsIgnoreCase(keyAlg)) {
+            return ED25519;
+        }
+        throw new IllegalArgumentException("不支持的密钥类型：" + keyAlg);
+    }
+
+    private static boolean isP256(ECParameterSpec params) {
+        if (params == null) {
+            return false;
+        }
+        ECParameterSpec p256 = P256Holder.SPEC;
+        return params.getCurve().equals(p256.getCurve())
+                && params.getGenerator().equals(p256.getGenerator())
+                && params.getOrder().equals(p256.getOrder())
+                && params.getCofactor() == p256.getCofactor();
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    /**
+     * 创建新的 Signature 实例
+     */
+    public Signature newSignature() throws GeneralSecurityException {
+        return provider == null ? Signature.getInstance(algorithm) : Signature.getInstance(algorithm, provider);
+    }
+
+    /**
+     * 创建已 initSign 的 Signature 实例（签名器池使用）
+     */
+    public Signature newSigner(PrivateKey privateKey) throws GeneralSecurityException {
+        Signature signature = newSignature();
+        signature.initSign(translate(privateKey));
+        return signature;
+    }
+
+    /**
+     * 创建已 initVerify 的 Signature 实例（流式校验时边读边 update）
+     */
+    public Signature newVerifier(PublicKey publicKey) throws GeneralSecurityException {
+        Signature signature = newSignature();
+        signature.initVerify(translate(publicKey));
+        return signature;
+    }
+
+    /**
+     * 对数据签名（每次创建 Signature，批量签发请使用签名器池）
+     */
+    public byte[] sign(byte[] data, PrivateKey privateKey) throws GeneralSecurityException {
+        Signature signature = newSigner(privateKey);
+        signature.update(data);
+        return signature.sign();
+    }
+
+    /**
+     * 校验数据片段的签名，使用当前线程复用的 Signature 实例
+     *
+     * @param data      原始数据所在字节数组
+     * @param offset    数据起始位置
+     * @param length    数据长度
+     * @param signature 签名字节
+     * @param publicKey 公钥
+     */
+    public boolean verify(byte[] data, int offset, int length, byte[] signature, PublicKey publicKey)
+            throws GeneralSecurityException {
+        Verifier verifier = verifiers.get();
+        Signature instance = verifier.acquire(this, publicKey);
+        try {
+            instance.update(data, offset, length);
+            return instance.verify(signature);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            // 出错后实例状态不可信，下次重新创建
+            verifier.discard();
+            throw e;
+        }
+    }
+
+    /**
+     * 指定了 Provider 时，把其他 Provider 生成的密钥（如 JDK 15+ keytool 生成的 Ed25519 密钥）转换为该 Provider 的密钥
+     */
+    private PrivateKey translate(PrivateKey key) throws GeneralSecurityException {
+        if (provider == null || isProvidedKey(key)) {
+            return key;
+        }
+        return KeyFactory.getInstance(keyAlgorithm, provider).generatePrivate(new PKCS8EncodedKeySpec(key.getEncoded()));
+    }
+
+    private PublicKey translate(PublicKey key) throws GeneralSecurityException {
+        if (provider == null || isProvidedKey(key)) {
+            return key;
+        }
+        return KeyFactory.getInstance(keyAlgorithm, provider).generatePublic(new X509EncodedKeySpec(key.getEncoded()));
+    }
+
+    private static boolean isProvidedKey(Key key) {
+        return key.getClass().getName().startsWith("org.bouncycastle.");
+    }
+
+    /**
+     * 线程私有的校验实例，记录最近一次 initVerify 使用的公钥
+     * verify() 完成后实例自动回到 initVerify 之后的状态，同一公钥可直接复用
+     */
+    private static final class Verifier {
+        private Signature signature;
+        private PublicKey key;
+
+        private Signature acquire(SignatureScheme scheme, PublicKey publicKey) throws GeneralSecurityException {
+            if (signature == null) {
+                signature = scheme.newSignature();
+                key = null;
+            }
+            if (key != publicKey) {
+                key = null;
+                signature.initVerify(scheme.translate(publicKey));
+                key = publicKey;
+            }
+            return signature;
+        }
+
+        private void discard() {
+            signature = null;
+            key = null;
+        }
+    }
+
+    /**
+     * P-256 曲线参数，首次校验 EC 密钥时才解析
+     */
+    private static final class P256Holder {
+        private static final ECParameterSpec SPEC;
+
+        static {
+            try {
+                AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                parameters.init(new ECGenParameterSpec("secp256r1"));
+                SPEC = parameters.getParameterSpec(ECParameterSpec.class);
+            } catch (GeneralSecurityException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+}
@@ -3,33 +3,31 @@ package org.example.licenseplatform.util;
 import java.nio.charset.StandardCharsets;
 import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.Signature;
 import java.util.Base64;
 
 /**
  * 签名工具类：用于生成和验证签名
+ * 具体算法由 {@link SignatureScheme} 决定，未指定算法时按 RSA（SHA256withRSA）处理
  */
 public class SignatureUtils {
 
-    private static final String SIGN_ALGORITHM = "SHA256withRSA";
+    /** 默认签名算法（未声明 alg 的 License 使用该算法） */
+    public static final String SIGN_ALGORITHM = SignatureScheme.RSA.getAlgorithm();
 
     /**
-     * 使用私钥对原始数据进行签名
+     * 使用私钥对原始数据进行签名，算法由私钥类型决定
      *
      * @param data 待签名内容（通常为 JSON 字符串）
      * @param privateKey 私钥
      * @return Base64 编码的签名字符串
      */
     public static String sign(String data, PrivateKey privateKey) throws Exception {
-        Signature signature = Signature.getInstance(SIGN_ALGORITHM);
-        signature.initSign(privateKey);
-        signature.update(data.getBytes(StandardCharsets.UTF_8));
-        byte[] signed = signature.sign();
+        byte[] signed = SignatureScheme.forKey(privateKey).sign(data.getBytes(StandardCharsets.UTF_8), privateKey);
         return Base64.getEncoder().encodeToString(signed);
     }
 
     /**
-     * 使用公钥验证签名是否合法
+     * 使用公钥验证签名是否合法（RSA）
      *
      * @param data 原始数据
      * @param signatureBase64 Base64 编码的签名字符串
@@ -37,10 +35,43 @@ public class SignatureUtils {
      * @return true：验证通过；false：验证失败（被篡改或伪造）
      */
     public static boolean verify(String data, String signatureBase64, PublicKey publicKey) throws Exception {
-        Signature signature = Signature.getInstance(SIGN_ALGORITHM);
-        signature.initVerify(publicKey);
-        signature.update(data.getBytes(StandardCharsets.UTF_8));
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        return verify(bytes, 0, bytes.length, signatureBase64, publicKey, SIGN_ALGORITHM);
+    }
+
+    /**
+     * 使用公钥验证签名是否合法（RSA，直接对原始字节验签，不经过字符串转换）
+     *
+     * @param data 原始数据所在字节数组
+     * @param offset 数据起始位置
+     * @param length 数据长度
+     * @param signatureBase64 Base64 编码的签名字符串
+     * @param publicKey 公钥
+     * @return true：验证通过；false：验证失败（被篡改或伪造）
+     */
+    public static boolean verify(byte[] data, int offset, int length, String signatureBase64, PublicKey publicKey) throws Exception {
+        return verify(data, offset, length, signatureBase64, publicKey, SIGN_ALGORITHM);
+    }
+
+    /**
+     * 按指定算法验证签名
+     *
+     * @param data 原始数据所在字节数组
+     * @param offset 数据起始位置
+     * @param length 数据长度
+     * @param signatureBase64 Base64 编码的签名字符串
+     * @param publicKey 公钥
+     * @param alg License 声明的签名算法，为空时按 RSA 处理
+     * @return true：验证通过；false：验证失败（被篡改或伪造）
+     */
+    public static boolean verify(byte[] data, int offset, int length, String signatureBase64, PublicKey publicKey,
+                                 String alg) throws Exception {
+        SignatureScheme scheme = SignatureScheme.of(alg);
+        if (SignatureScheme.forKey(publicKey) != scheme) {
+            // 公钥类型与声明的算法不一致，不可能验签通过
+            return false;
+        }
         byte[] signatureBytes = Base64.getDecoder().decode(signatureBase64);
-        return signature.verify(signatureBytes);
+        return scheme.verify(data, offset, length, signatureBytes, publicKey);
     }
 }
@@ -0,0 +1,11 @@
+package org.example.licenseplatform.util;
+
+/**
+ * 时间回拨异常：系统时间早于最后可信时间，或时间记录被篡改
+ */
+public class TimeRollbackException extends RuntimeException {
+
+    public TimeRollbackException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,231 @@
+package org.example.licenseplatform.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 时间回拨日志：在内存中维护最后一次可信的时间戳，回拨检测只与内存值比较
+ *
+ * 持久化采用写后合并：后台线程按固定间隔把最新时间戳写入记录文件（先写临时文件再原子 rename，可选 fsync），
+ * JVM 退出时再写一次。读写记录文件前先获取同目录下 .lock 文件的 FileChannel 排他锁，
+ * 同一台机器上的多个 JVM 可以安全地共享同一份记录；写入前会合并其他 JVM 写入的更大时间戳。
+ * 记录文件格式与之前一致：{时间戳}:{HMAC(时间戳)}。
+ */
+@Slf4j
+public final class TimeRollbackJournal {
+
+    /** 并发调用方读取时钟与推进时间戳的先后顺序可能交错，允许的误差（毫秒） */
+    private static final long TOLERANCE_MILLIS = 1000;
+
+    private static final ConcurrentMap<Path, TimeRollbackJournal> JOURNALS = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "time-journal-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static long flushIntervalMillis = 1000;
+    private static volatile boolean fsync = false;
+    private static ScheduledFuture<?> flushTask;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(TimeRollbackJournal::flushAll, "time-journal-shutdown"));
+    }
+
+    private final Path recordPath;
+    private final Path tempPath;
+    private final Path lockPath;
+    private final HmacEngine hmac;
+
+    /** 最后一次可信的时间戳，0 表示尚无记录 */
+    private final AtomicLong lastTrusted = new AtomicLong();
+
+    /** 已写入记录文件的时间戳 */
+    private volatile long persisted;
+
+    /** 后台写入时发现记录被篡改的原因，此后的检测一律失败 */
+    private volatile String tampered;
+
+    private TimeRollbackJournal(Path recordPath, String secret) {
+        this.recordPath = recordPath;
+        this.tempPath = recordPath.resolveSibling(recordPath.getFileName() + ".tmp");
+        this.lockPath = recordPath.resolveSibling(recordPath.getFileName() + ".lock");
+        this.hmac = HmacEngine.forSecret(secret);
+    }
+
+    /**
+     * 获取记录文件对应的日志（每个文件在 JVM 内只加载一次）
+     *
+     * @param timeRecordPath 记录文件路径
+     * @param secret         HMAC 密钥
+     * @throws TimeRollbackException 记录被篡改或格式非法
+     */
+    public static TimeRollbackJournal of(String timeRecordPath, String secret) {
+        Path path = Paths.get(timeRecordPath).toAbsolutePath().normalize();
+        TimeRollbackJournal journal = JOURNALS.get(path);
+        if (journal != null) {
+            return journal;
+        }
+        // 加载失败时不会放入缓存，下一次调用会重新读取并再次报告
+        return JOURNALS.computeIfAbsent(path, p -> {
+            TimeRollbackJournal created = new TimeRollbackJournal(p, secret);
+            created.load();
+            ensureFlusher();
+            return created;
+        });
+    }
+
+    /**
+     * 设置后台写入间隔与是否 fsync
+     */
+    public static synchronized void configure(long flushIntervalMillis, boolean fsync) {
+        TimeRollbackJournal.flushIntervalMillis = flushIntervalMillis;
+        TimeRollbackJournal.fsync = fsync;
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+            ensureFlusher();
+        }
+    }
+
+    private static synchronized void ensureFlusher() {
+        if (flushTask == null) {
+            flushTask = FLUSHER.scheduleWithFixedDelay(TimeRollbackJournal::flushAll,
+                    flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 把所有日志的最新时间戳写入记录文件
+     */
+    public static void flushAll() {
+        for (TimeRollbackJournal journal : JOURNALS.values()) {
+            try {
+                journal.flush();
+            } catch (Exception e) {
+                log.error("时间记录写入失败：{}", journal.recordPath, e);
+            }
+        }
+    }
+
+    /**
+     * 检测时间回拨，并把当前时间记为最后可信时间（异步持久化）
+     *
+     * @param nowMillis 当前时间
+     * @throws TimeRollbackException 时间早于最后可信时间，或记录被篡改
+     */
+    public void checkAndAdvance(long nowMillis) {
+        String reason = tampered;
+        if (reason != null) {
+            throw new TimeRollbackException(reason);
+        }
+        long last = lastTrusted.getAndAccumulate(nowMillis, Math::max);
+        if (nowMillis + TOLERANCE_MILLIS < last) {
+            throw new TimeRollbackException("检测到系统时间回拨，License 校验失败");
+        }
+    }
+
+    /**
+     * 最后一次可信的时间戳
+     */
+    public long lastTrusted() {
+        return lastTrusted.get();
+    }
+
+    /**
+     * 立即写入记录文件（无新时间戳时跳过）
+     */
+    public synchronized void flush() throws IOException {
+        if (tampered != null || lastTrusted.get() == persisted) {
+            return;
+        }
+        try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+            // 合并其他 JVM 已写入的更大时间戳
+            Long onDisk = readRecord();
+            if (onDisk != null) {
+                lastTrusted.accumulateAndGet(onDisk, Math::max);
+            }
+            long value = lastTrusted.get();
+            writeRecord(value);
+            persisted = value;
+        } catch (TimeRollbackException e) {
+            tampered = e.getMessage();
+            log.error("时间记录被篡改：{}", recordPath);
+        }
+    }
+
+    private void load() {
+        try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+            Long onDisk = readRecord();
+            if (onDisk != null) {
+                lastTrusted.set(onDisk);
+                persisted = onDisk;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("时间记录读取失败（文件IO异常）", e);
+        }
+    }
+
+    private FileChannel openLockChannel() throws IOException {
+        Path dir = recordPath.getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        return FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * 读取并校验记录文件，文件不存在时返回 null
+     */
+    private Long readRecord() throws IOException {
+        if (!Files.exists(recordPath)) {
+            return null;
+        }
+        String content = new String(Files.readAllBytes(recordPath), StandardCharsets.UTF_8).trim();
+        String[] parts = content.split(":");
+        if (parts.length != 2) {
+            throw new TimeRollbackException("时间记录格式非法，可能被篡改");
+        }
+        if (!hmac.verifyBase64(parts[0], parts[1])) {
+            throw new TimeRollbackException("检测到时间记录被篡改");
+        }
+        try {
+            return Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            throw new TimeRollbackException("时间记录格式非法，可能被篡改");
+        }
+    }
+
+    private void writeRecord(long value) throws IOException {
+        String record = value + ":" + hmac.signBase64(String.valueOf(value));
+        ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(true);
+            }
+        }
+        Files.move(tempPath, recordPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
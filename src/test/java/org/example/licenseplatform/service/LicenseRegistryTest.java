@@ -0,0 +1,153 @@
+package org.example.licenseplatform.service;
+
+import org.example.licenseplatform.config.LicenseConfig;
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.LicenseRecord;
+import org.example.licenseplatform.model.LicenseSearchPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 签发登记簿：游标翻页、重复登记、过期时间边界与日志残行恢复
+ */
+class LicenseRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    private Path logPath;
+    private LicenseRegistry registry;
+
+    @BeforeEach
+    void open() {
+        logPath = dir.resolve("registry.ndjson");
+        registry = openRegistry();
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        registry.close();
+    }
+
+    @Test
+    void pagingSkipsSupersededRecords() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            register("L" + i, "ACME", "docx", 1000L * i);
+        }
+        // 重新登记 L2：旧记录失效，新记录排在最后
+        register("L2", "ACME", "docx", 9000L);
+
+        List<String> byCustomer = collect(cursor -> registry.search("ACME", null, null, null, cursor, 2));
+        assertEquals(Arrays.asList("L1", "L3", "L4", "L5", "L2"), byCustomer);
+
+        List<String> all = collect(cursor -> registry.search(null, null, null, null, cursor, 2));
+        assertEquals(Arrays.asList("L1", "L3", "L4", "L5", "L2"), all);
+
+        List<String> byExpire = collect(cursor -> registry.search(null, null, 0L, Long.MAX_VALUE, cursor, 2));
+        assertEquals(Arrays.asList("L1", "L3", "L4", "L5", "L2"), byExpire);
+
+        assertEquals(5, registry.size());
+        assertEquals(9000L, registry.get("L2").getExpireDate());
+    }
+
+    @Test
+    void expireCursorOnBoundaryTimestamp() throws Exception {
+        register("A", "ACME", "docx", 100L);
+        register("B", "ACME", "docx", 200L);
+        register("C", "ACME", "docx", 200L);
+        register("D", "ACME", "docx", 200L);
+        register("E", "ACME", "docx", 300L);
+
+        // 第一页恰好停在 200 这个时间戳中间，游标为 e200:<ordinal>
+        LicenseSearchPage first = registry.search(null, null, 200L, 300L, null, 2);
+        assertEquals(Arrays.asList("B", "C"), ids(first));
+        assertTrue(first.getNextCursor().startsWith("e200:"));
+
+        LicenseSearchPage second = registry.search(null, null, 200L, 300L, first.getNextCursor(), 2);
+        assertEquals(Arrays.asList("D", "E"), ids(second));
+
+        // 区间上下限都包含边界
+        assertEquals(Arrays.asList("A", "B", "C", "D"),
+                collect(cursor -> registry.search(null, null, 100L, 200L, cursor, 1)));
+        assertEquals(Arrays.asList("B", "C", "D"), ids(registry.search(null, null, 200L, 200L, null, 10)));
+    }
+
+    @Test
+    void rebuildTruncatesHalfWrittenLastLine() throws Exception {
+        register("L1", "ACME", "docx", 1000L);
+        register("L2", "ACME", "docx", 2000L);
+        registry.close();
+        long complete = Files.size(logPath);
+
+        // 模拟写入途中崩溃：最后一行没有换行符
+        Files.write(logPath, "{\"licenseId\":\"L3\",\"cust".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        registry = openRegistry();
+        assertEquals(2, registry.size());
+        assertNull(registry.get("L3"));
+        assertEquals(complete, Files.size(logPath));
+
+        // 截断后继续追加，重启后仍能完整读出
+        register("L3", "ACME", "docx", 3000L);
+        registry.close();
+        registry = openRegistry();
+        assertEquals(3, registry.size());
+        assertEquals(3000L, registry.get("L3").getExpireDate());
+    }
+
+    private LicenseRegistry openRegistry() {
+        LicenseConfig config = new LicenseConfig();
+        config.getRegistry().setLogPath(logPath.toString());
+        LicenseRegistry opened = new LicenseRegistry();
+        ReflectionTestUtils.setField(opened, "licenseConfig", config);
+        opened.init();
+        assertTrue(opened.isAvailable());
+        return opened;
+    }
+
+    private void register(String licenseId, String customer, String projectId, long expireDate) throws IOException {
+        LicenseContent content = new LicenseContent();
+        content.setLicenseId(licenseId);
+        content.setCustomer(customer);
+        content.setProjectId(projectId);
+        content.setIssueDate(0L);
+        content.setExpireDate(expireDate);
+        registry.register(content, dir.resolve(licenseId + ".lic").toString());
+    }
+
+    private static List<String> collect(Function<String, LicenseSearchPage> query) {
+        List<String> result = new ArrayList<>();
+        String cursor = null;
+        do {
+            LicenseSearchPage page = query.apply(cursor);
+            result.addAll(ids(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return result;
+    }
+
+    private static List<String> ids(LicenseSearchPage page) {
+        List<String> result = new ArrayList<>();
+        for (LicenseRecord record : page.getItems()) {
+            result.add(record.getLicenseId());
+        }
+        return result;
+    }
+}
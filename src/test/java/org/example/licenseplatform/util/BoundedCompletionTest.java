@@ -0,0 +1,144 @@
+package org.example.licenseplatform.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 有界并行执行：在途上限、结果完整回调、回调失败与中断时取消在途任务
+ */
+class BoundedCompletionTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void createExecutor() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void inFlightNeverExceedsLimit() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Integer> inputs = IntStream.range(0, 200).boxed().collect(Collectors.toList());
+        List<Integer> results = new ArrayList<>();
+
+        int submitted = BoundedCompletion.run(executor, 3, inputs.iterator(), (index, input) -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(1);
+            running.decrementAndGet();
+            return index;
+        }, results::add);
+
+        assertEquals(200, submitted);
+        assertTrue(peak.get() <= 3, "peak in-flight " + peak.get());
+        Collections.sort(results);
+        assertEquals(inputs, results);
+    }
+
+    @Test
+    void failingTaskIsSkipped() throws Exception {
+        List<Integer> results = new ArrayList<>();
+
+        BoundedCompletion.run(executor, 2, IntStream.range(0, 10).boxed().iterator(), (index, input) -> {
+            if (input == 5) {
+                throw new IllegalStateException("boom");
+            }
+            return input;
+        }, results::add);
+
+        assertEquals(9, results.size());
+    }
+
+    @Test
+    void sinkFailureCancelsInFlightTasks() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(3);
+        AtomicInteger interrupted = new AtomicInteger();
+
+        assertThrows(UncheckedIOException.class, () -> BoundedCompletion.run(executor, 4,
+                IntStream.range(0, 100).boxed().iterator(), (index, input) -> {
+                    if (index == 0) {
+                        // 等其余任务都进入阻塞后再完成，触发回调失败
+                        blocked.await(5, TimeUnit.SECONDS);
+                        return input;
+                    }
+                    blocked.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                    } catch (InterruptedException e) {
+                        interrupted.incrementAndGet();
+                    }
+                    return input;
+                }, result -> {
+                    throw new UncheckedIOException(new IOException("client gone"));
+                }));
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(3, interrupted.get());
+    }
+
+    @Test
+    void interruptCancelsInFlightTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger interrupted = new AtomicInteger();
+
+        // 读取第 3 个输入时两个任务都已在运行，此时中断调用线程
+        Iterator<Integer> inputs = IntStream.range(0, 10).boxed().peek(i -> {
+            if (i == 2) {
+                awaitQuietly(started);
+                Thread.currentThread().interrupt();
+            }
+        }).iterator();
+        try {
+            assertThrows(InterruptedException.class, () -> BoundedCompletion.run(executor, 2,
+                    inputs, (index, input) -> {
+                        started.countDown();
+                        try {
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                        } catch (InterruptedException e) {
+                            interrupted.incrementAndGet();
+                        }
+                        return input;
+                    }, result -> {
+                    }));
+        } finally {
+            Thread.interrupted();
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, interrupted.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
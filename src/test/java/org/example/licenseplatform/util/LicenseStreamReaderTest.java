@@ -0,0 +1,216 @@
+package org.example.licenseplatform.util;
+
+import org.example.licenseplatform.client.BoundMachineIndex;
+import org.example.licenseplatform.model.LicenseContent;
+import org.example.licenseplatform.model.MachineInfo;
+import org.example.licenseplatform.model.StreamedLicense;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * .lic 文件编码与流式验签的往返测试：新格式（JSON / Smile payload）、篡改、尾部追加字节与旧格式兼容
+ */
+class LicenseStreamReaderTest {
+
+    private static final String ALG = "SHA256withRSA";
+    private static final String KID = "test-kid";
+
+    private static KeyPair keyPair;
+
+    @BeforeAll
+    static void generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadFormat.class)
+    void encodeThenStreamVerify(PayloadFormat format) throws Exception {
+        LicenseContent content = license(100);
+        byte[] file = encode(content, format);
+
+        StreamedLicense loaded = read(file, content.getBoundMachines().get(42));
+
+        assertTrue(loaded.isSignatureValid());
+        assertEquals(KID, loaded.getKid());
+        assertEquals(ALG, loaded.getAlg());
+        assertEquals(100, loaded.getMachineCount());
+        assertTrue(loaded.isMachineAuthorized());
+        assertEquals(content.getLicenseId(), loaded.getContent().getLicenseId());
+        assertEquals(content.getCustomer(), loaded.getContent().getCustomer());
+        assertEquals(content.getExpireDate(), loaded.getContent().getExpireDate());
+        assertEquals(content.getFeatures(), loaded.getContent().getFeatures());
+        // 流式加载不保留绑定机器明细
+        assertNull(loaded.getContent().getBoundMachines());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadFormat.class)
+    void decodeMatchesEncodedPayload(PayloadFormat format) throws Exception {
+        LicenseContent content = license(3);
+        byte[] payload = LicenseFileCodec.toPayload(content, format);
+        byte[] file = LicenseFileCodec.encode(payload, sign(payload), ALG, KID);
+
+        assertArrayEquals(payload, Arrays.copyOfRange(file, file.length - payload.length, file.length));
+        assertEquals(content.getLicenseId(), LicenseFileCodec.decode(file).getContent().getLicenseId());
+        assertEquals(3, LicenseFileCodec.decode(file).getContent().getBoundMachines().size());
+    }
+
+    @Test
+    void unknownMachineIsNotAuthorized() throws Exception {
+        LicenseContent content = license(10);
+        MachineInfo other = machine(999);
+
+        StreamedLicense loaded = read(encode(content, PayloadFormat.JSON), other);
+
+        assertTrue(loaded.isSignatureValid());
+        assertFalse(loaded.isMachineAuthorized());
+    }
+
+    @Test
+    void flippedPayloadByteFailsVerification() throws Exception {
+        LicenseContent content = license(10);
+        byte[] file = encode(content, PayloadFormat.JSON);
+        // 篡改客户名中的一个字符，payload 仍是合法 JSON
+        int index = indexOf(file, content.getCustomer().getBytes(StandardCharsets.UTF_8));
+        file[index] ^= 0x01;
+
+        StreamedLicense loaded = read(file, content.getBoundMachines().get(0));
+
+        assertFalse(loaded.isSignatureValid());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadFormat.class)
+    void trailingBytesFailVerification(PayloadFormat format) throws Exception {
+        LicenseContent content = license(10);
+        byte[] encoded = encode(content, format);
+        byte[] file = Arrays.copyOf(encoded, encoded.length + 2);
+        file[encoded.length] = '\n';
+        file[encoded.length + 1] = ' ';
+
+        StreamedLicense loaded = read(file, content.getBoundMachines().get(0));
+
+        assertFalse(loaded.isSignatureValid());
+    }
+
+    @Test
+    void headerKidMustMatchPayloadKid() throws Exception {
+        LicenseContent content = license(1);
+        byte[] payload = LicenseFileCodec.toPayload(content, PayloadFormat.JSON);
+        byte[] file = LicenseFileCodec.encode(payload, sign(payload), ALG, "other-kid");
+
+        assertThrows(IOException.class, () -> LicenseFileCodec.decode(file));
+        assertThrows(IOException.class, () -> read(file, content.getBoundMachines().get(0)));
+    }
+
+    @Test
+    void legacyFileIsStillVerified() throws Exception {
+        LicenseContent content = license(10);
+        content.setAlg(null);
+        content.setKid(null);
+        // 旧格式：签名针对去掉 signature 字段后的 JSON，再把签名写回同一个 JSON 对象
+        byte[] unsigned = JsonUtils.getMapper().writeValueAsString(content).getBytes(StandardCharsets.UTF_8);
+        content.setSignature(sign(unsigned));
+        byte[] file = JsonUtils.getMapper().writeValueAsString(content).getBytes(StandardCharsets.UTF_8);
+
+        StreamedLicense loaded = read(file, content.getBoundMachines().get(3));
+
+        assertTrue(loaded.isSignatureValid());
+        assertEquals(10, loaded.getMachineCount());
+        assertTrue(loaded.isMachineAuthorized());
+        assertEquals(content.getLicenseId(), loaded.getContent().getLicenseId());
+
+        content.setCustomer(content.getCustomer() + "!");
+        byte[] tampered = JsonUtils.getMapper().writeValueAsString(content).getBytes(StandardCharsets.UTF_8);
+        assertFalse(read(tampered, content.getBoundMachines().get(3)).isSignatureValid());
+    }
+
+    private static StreamedLicense read(byte[] file, MachineInfo current) throws Exception {
+        try (LicenseStreamReader reader = LicenseStreamReader.open(new ByteArrayInputStream(file))) {
+            return reader.read(keyPair.getPublic(),
+                    BoundMachineIndex.matcherFor(current, BoundMachineIndex.ALL_COMPONENTS));
+        }
+    }
+
+    private static byte[] encode(LicenseContent content, PayloadFormat format) throws Exception {
+        byte[] payload = LicenseFileCodec.toPayload(content, format);
+        return LicenseFileCodec.encode(payload, sign(payload), ALG, KID);
+    }
+
+    private static String sign(byte[] data) throws Exception {
+        Signature signature = Signature.getInstance(ALG);
+        signature.initSign(keyPair.getPrivate());
+        signature.update(data);
+        return Base64.getEncoder().encodeToString(signature.sign());
+    }
+
+    private static LicenseContent license(int machines) {
+        LicenseContent content = new LicenseContent();
+        content.setLicenseId("TEST-TST-202501-000001");
+        content.setProjectId("test");
+        content.setCustomer("Test Customer Co., Ltd.");
+        content.setIssueDate(1735689600000L);
+        content.setExpireDate(1767225600000L);
+        content.setFirstUsedAt(1735689600000L);
+        content.setMode("cluster");
+        content.setAlg(ALG);
+        content.setKid(KID);
+
+        Map<String, Boolean> features = new LinkedHashMap<>();
+        features.put("exportExcel", true);
+        features.put("apiAccess", false);
+        content.setFeatures(features);
+
+        List<MachineInfo> bound = new ArrayList<>(machines);
+        for (int i = 0; i < machines; i++) {
+            bound.add(machine(i));
+        }
+        content.setBoundMachines(bound);
+        return content;
+    }
+
+    private static MachineInfo machine(int i) {
+        MachineInfo machine = new MachineInfo();
+        machine.setMacAddress(String.format("02:00:00:00:%02X:%02X", i >>> 8 & 0xFF, i & 0xFF));
+        machine.setCpuSerial(String.format("ID: %016X", i));
+        machine.setMainBoardSerial(String.format("Serial Number: BOARD%06d", i));
+        return machine;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new IllegalArgumentException("pattern not found");
+    }
+}
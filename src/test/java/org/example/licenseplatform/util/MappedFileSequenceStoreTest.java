@@ -0,0 +1,103 @@
+package org.example.licenseplatform.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 内存映射序号文件：重新打开后计数不回退、并发递增只向前写入、槽位用完自动扩容
+ */
+class MappedFileSequenceStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void countersSurviveReopen() throws Exception {
+        Path file = dir.resolve("sequence.dat");
+        MappedFileSequenceStore store = new MappedFileSequenceStore(file, 16);
+        assertEquals(50, store.incrementBy("license:id:DOCX:TST:202509", 50));
+        assertEquals(100, store.incrementBy("license:id:DOCX:TST:202509", 50));
+        assertEquals(7, store.incrementBy("license:id:DOCX:ACME:202509", 7));
+        store.close();
+
+        store = new MappedFileSequenceStore(file, 16);
+        try {
+            assertEquals(101, store.incrementBy("license:id:DOCX:TST:202509", 1));
+            assertEquals(8, store.incrementBy("license:id:DOCX:ACME:202509", 1));
+            assertEquals(1, store.incrementBy("license:id:DOCX:NEW:202509", 1));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void concurrentIncrementsPersistTheHighestValue() throws Exception {
+        Path file = dir.resolve("sequence.dat");
+        MappedFileSequenceStore store = new MappedFileSequenceStore(file, 16);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        store.incrementBy("key", 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+            store.close();
+        }
+
+        // 乱序到达的较小值不会覆盖已写入的较大值
+        MappedFileSequenceStore reopened = new MappedFileSequenceStore(file, 16);
+        try {
+            assertEquals(1601, reopened.incrementBy("key", 1));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void growsWhenSlotsRunOut() throws Exception {
+        Path file = dir.resolve("sequence.dat");
+        MappedFileSequenceStore store = new MappedFileSequenceStore(file, 2);
+        for (int i = 0; i < 10; i++) {
+            store.incrementBy("key" + i, i + 1);
+        }
+        store.close();
+
+        store = new MappedFileSequenceStore(file, 2);
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i + 2, store.incrementBy("key" + i, 1));
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void fileCanOnlyBeOpenedOnce() throws Exception {
+        Path file = dir.resolve("sequence.dat");
+        MappedFileSequenceStore store = new MappedFileSequenceStore(file, 16);
+        try {
+            assertThrows(IllegalStateException.class, () -> new MappedFileSequenceStore(file, 16));
+        } finally {
+            store.close();
+        }
+    }
+}